@@ -0,0 +1,17 @@
+package io.github.augustoravazoli.inventorymanagementsystem;
+
+import io.github.augustoravazoli.inventorymanagementsystem.user.OwnerFilteringTransactionManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+public class PersistenceConfiguration {
+
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new OwnerFilteringTransactionManager(entityManagerFactory);
+    }
+
+}
@@ -38,11 +38,19 @@ public class CategoryController {
     }
 
     @GetMapping("/list")
-    public String listCategories(@AuthenticationPrincipal User user, @RequestParam(name = "page", defaultValue = "1") int page, Model model) {
-        var categoryPage = categoryService.listCategories(page, user);
-        model.addAttribute("categories", categoryPage.getContent());
-        model.addAttribute("currentPage", categoryPage.getNumber() + 1);
-        model.addAttribute("totalPages", categoryPage.getTotalPages());
+    public String listCategories(
+            @AuthenticationPrincipal User user,
+            @RequestParam(name = "page", defaultValue = "1") int page,
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "before", required = false) String before,
+            Model model
+    ) {
+        var categorySlice = categoryService.listCategories(after, before, user);
+        model.addAttribute("categories", categorySlice.content());
+        model.addAttribute("currentPage", page);
+        model.addAttribute("previousCursor", categorySlice.previousCursor());
+        model.addAttribute("nextCursor", categorySlice.nextCursor());
+        model.addAttribute("totalPages", categoryService.countCategoryPages(user));
         return "category/category-table";
     }
 
@@ -0,0 +1,21 @@
+package io.github.augustoravazoli.inventorymanagementsystem.category;
+
+public class CategoryOption {
+
+    private final Long id;
+    private final String name;
+
+    public CategoryOption(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+}
@@ -1,28 +1,71 @@
 package io.github.augustoravazoli.inventorymanagementsystem.category;
 
 import io.github.augustoravazoli.inventorymanagementsystem.user.User;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     boolean existsByIdAndOwner(long id, User owner);
 
     boolean existsByNameAndOwner(String name, User owner);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Category> findByIdAndOwner(long id, User owner);
 
     Optional<Category> findByNameAndOwner(String name, User owner);
 
-    Page<Category> findAllByOwner(User owner, Pageable pageable);
+    Slice<Category> findAllByOwner(User owner, Pageable pageable);
 
-    List<Category> findAllByOwner(User owner, Sort sort);
+    @Query("SELECT c FROM Category c WHERE c.owner = :owner AND (c.name, c.id) > (:name, :id) ORDER BY c.name, c.id")
+    Slice<Category> findAllByOwnerAfter(User owner, String name, long id, Pageable pageable);
 
-    List<Category> findAllByNameContainingIgnoreCaseAndOwner(String name, User owner);
+    @Query("SELECT c FROM Category c WHERE c.owner = :owner AND (c.name, c.id) < (:name, :id) ORDER BY c.name DESC, c.id DESC")
+    Slice<Category> findAllByOwnerBefore(User owner, String name, long id, Pageable pageable);
+
+    @Query("""
+            SELECT new io.github.augustoravazoli.inventorymanagementsystem.category.CategoryOption(c.id, c.name)
+            FROM Category c
+            WHERE c.owner = :owner
+            ORDER BY c.name
+            """)
+    List<CategoryOption> findOptionsByOwner(User owner);
+
+    @Query("""
+            SELECT new io.github.augustoravazoli.inventorymanagementsystem.category.CategoryOption(c.id, c.name)
+            FROM Category c
+            WHERE c.name IN :names AND c.owner = :owner
+            """)
+    List<CategoryOption> findOptionsByNameInAndOwner(Collection<String> names, User owner);
+
+    @Query(value = "SELECT count_owner_rows('category', :ownerId, NULL, :threshold)", nativeQuery = true)
+    long countByOwner(long ownerId, int threshold);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.category = NULL WHERE p.category.id = :id")
+    void detachProducts(long id);
+
+    @Query(
+            value = """
+                    SELECT * FROM category
+                    WHERE owner_id = :#{#owner.id}
+                    AND (LOWER(name) LIKE LOWER(:pattern) ESCAPE '\\' OR LOWER(:name) <% LOWER(name))
+                    ORDER BY word_similarity(LOWER(:name), LOWER(name)) DESC, name
+                    LIMIT :limit
+                    """,
+            nativeQuery = true
+    )
+    List<Category> searchAllByNameAndOwner(String name, String pattern, User owner, int limit);
 
 }
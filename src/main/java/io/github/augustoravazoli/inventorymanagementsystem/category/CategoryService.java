@@ -1,14 +1,19 @@
 package io.github.augustoravazoli.inventorymanagementsystem.category;
 
 import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Count;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Cursor;
+import io.github.augustoravazoli.inventorymanagementsystem.util.CursorSlice;
+import io.github.augustoravazoli.inventorymanagementsystem.util.OwnerScopedCache;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Search;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.List;
 
 @Service
@@ -17,6 +22,7 @@ public class CategoryService {
     private static final Logger logger = LoggerFactory.getLogger(CategoryService.class);
 
     private final CategoryRepository categoryRepository;
+    private final OwnerScopedCache<List<CategoryOption>> categoryOptions = new OwnerScopedCache<>("category options", 1000, Duration.ofMinutes(10));
 
     public CategoryService(CategoryRepository categoryRepository) {
         this.categoryRepository = categoryRepository;
@@ -30,25 +36,40 @@ public class CategoryService {
         }
         category.setOwner(owner);
         categoryRepository.save(category);
+        categoryOptions.invalidate(owner.getId());
         logger.info("Category {} created for user {}", category.getName(), owner.getEmail());
     }
 
     @Transactional(readOnly = true)
-    public Page<Category> listCategories(int page, User owner) {
+    public CursorSlice<Category> listCategories(String after, String before, User owner) {
         logger.info("Listing categories paginated for user {}", owner.getEmail());
-        return categoryRepository.findAllByOwner(owner, PageRequest.of(page - 1, 8, Sort.by("name")));
+        var pageable = PageRequest.ofSize(8);
+        if (before != null) {
+            var cursor = Cursor.decode(before);
+            return CursorSlice.before(categoryRepository.findAllByOwnerBefore(owner, cursor.key(), cursor.id(), pageable), this::cursorOf);
+        }
+        if (after != null) {
+            var cursor = Cursor.decode(after);
+            return CursorSlice.after(categoryRepository.findAllByOwnerAfter(owner, cursor.key(), cursor.id(), pageable), true, this::cursorOf);
+        }
+        return CursorSlice.after(categoryRepository.findAllByOwner(owner, pageable.withSort(Sort.by("name", "id"))), false, this::cursorOf);
     }
 
     @Transactional(readOnly = true)
-    public List<Category> listCategories(User owner) {
+    public Count countCategoryPages(User owner) {
+        logger.info("Counting category pages for user {}", owner.getEmail());
+        return Count.of(categoryRepository.countByOwner(owner.getId(), Count.EXACT_THRESHOLD)).toPages(8);
+    }
+
+    public List<CategoryOption> listCategories(User owner) {
         logger.info("Listing categories for user {}", owner.getEmail());
-        return categoryRepository.findAllByOwner(owner, Sort.by("name"));
+        return categoryOptions.get(owner.getId(), () -> categoryRepository.findOptionsByOwner(owner));
     }
 
     @Transactional(readOnly = true)
     public List<Category> findCategories(String name, User owner) {
         logger.info("Finding categories containing name {} for user {}", name, owner.getEmail());
-        return categoryRepository.findAllByNameContainingIgnoreCaseAndOwner(name, owner);
+        return categoryRepository.searchAllByNameAndOwner(name, Search.containing(name), owner, Search.RESULT_LIMIT);
     }
 
     @Transactional(readOnly = true)
@@ -69,6 +90,7 @@ public class CategoryService {
         }
         category.setName(updatedCategory.getName());
         categoryRepository.save(category);
+        categoryOptions.invalidate(owner.getId());
         logger.info("Category with id {} of user {} updated, new name is {}", category.getId(), owner.getEmail(), updatedCategory.getName());
     }
 
@@ -78,8 +100,14 @@ public class CategoryService {
             logger.info("Category with id {} of user user {} not found, throwing exception", id, owner.getEmail());
             throw new CategoryNotFoundException();
         }
+        categoryRepository.detachProducts(id);
         categoryRepository.deleteById(id);
+        categoryOptions.invalidate(owner.getId());
         logger.info("Category with id {} of user {} deleted", id, owner.getEmail());
     }
 
+    private Cursor cursorOf(Category category) {
+        return new Cursor(category.getName(), category.getId());
+    }
+
 }
@@ -4,6 +4,7 @@ import io.github.augustoravazoli.inventorymanagementsystem.user.User;
 import io.github.augustoravazoli.inventorymanagementsystem.util.CsvConverter;
 import io.github.augustoravazoli.inventorymanagementsystem.util.CsvConversionException;
 import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -11,6 +12,8 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.List;
+
 @Controller
 @RequestMapping("/customers")
 public class CustomerController {
@@ -49,9 +52,8 @@ public class CustomerController {
             @RequestParam(name = "customers") MultipartFile customersFile,
             RedirectAttributes redirectAttributes
     ) {
-        try {
-            var customers = csvConverter.convert(customersFile, CustomerForm.class);
-            customerService.createAllCustomers(customers.stream().map(CustomerForm::toEntity).toList(), user);
+        try (var chunks = csvConverter.convertInChunks(customersFile, CustomerForm.class)) {
+            customerService.createAllCustomers(chunks.map(chunk -> chunk.stream().map(CustomerForm::toEntity).toList()), user);
         } catch (CsvConversionException e) {
             redirectAttributes.addFlashAttribute("mappingError", true);
         }
@@ -59,11 +61,19 @@ public class CustomerController {
     }
 
     @GetMapping("/list")
-    public String listCustomers(@AuthenticationPrincipal User user, @RequestParam(name = "page", defaultValue = "1") int page, Model model) {
-        var customerPage = customerService.listCustomers(page, user);
-        model.addAttribute("customers", customerPage.getContent());
-        model.addAttribute("currentPage", customerPage.getNumber() + 1);
-        model.addAttribute("totalPages", customerPage.getTotalPages());
+    public String listCustomers(
+            @AuthenticationPrincipal User user,
+            @RequestParam(name = "page", defaultValue = "1") int page,
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "before", required = false) String before,
+            Model model
+    ) {
+        var customerSlice = customerService.listCustomers(after, before, user);
+        model.addAttribute("customers", customerSlice.content());
+        model.addAttribute("currentPage", page);
+        model.addAttribute("previousCursor", customerSlice.previousCursor());
+        model.addAttribute("nextCursor", customerSlice.nextCursor());
+        model.addAttribute("totalPages", customerService.countCustomerPages(user));
         return "customer/customer-table";
     }
 
@@ -74,6 +84,14 @@ public class CustomerController {
         return "customer/customer-table";
     }
 
+    @GetMapping("/options")
+    public ResponseEntity<List<CustomerOption>> findCustomerOptions(
+            @AuthenticationPrincipal User user,
+            @RequestParam(name = "name", defaultValue = "") String name
+    ) {
+        return ResponseEntity.ok(customerService.findCustomerOptions(name, user));
+    }
+
     @GetMapping("/update/{id}")
     public String retrieveUpdateCustomerPage(@AuthenticationPrincipal User user, @PathVariable("id") long id, Model model) {
         var customer = customerService.findCustomer(id, user);
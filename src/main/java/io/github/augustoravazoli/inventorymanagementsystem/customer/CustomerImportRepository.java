@@ -0,0 +1,9 @@
+package io.github.augustoravazoli.inventorymanagementsystem.customer;
+
+import java.util.Collection;
+
+public interface CustomerImportRepository {
+
+    void insertAll(Collection<Customer> customers);
+
+}
@@ -0,0 +1,22 @@
+package io.github.augustoravazoli.inventorymanagementsystem.customer;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.Collection;
+
+public class CustomerImportRepositoryImpl implements CustomerImportRepository {
+
+    private final EntityManager entityManager;
+
+    public CustomerImportRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public void insertAll(Collection<Customer> customers) {
+        customers.forEach(entityManager::persist);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+}
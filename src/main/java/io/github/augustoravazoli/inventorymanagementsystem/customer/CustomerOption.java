@@ -0,0 +1,21 @@
+package io.github.augustoravazoli.inventorymanagementsystem.customer;
+
+public class CustomerOption {
+
+    private final Long id;
+    private final String name;
+
+    public CustomerOption(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+}
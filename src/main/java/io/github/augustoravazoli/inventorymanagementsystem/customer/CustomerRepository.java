@@ -1,28 +1,88 @@
 package io.github.augustoravazoli.inventorymanagementsystem.customer;
 
 import io.github.augustoravazoli.inventorymanagementsystem.user.User;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
+public interface CustomerRepository extends JpaRepository<Customer, Long>, CustomerImportRepository {
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     boolean existsByIdAndOwner(long id, User owner);
 
     boolean existsByNameAndOwner(String name, User owner);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Customer> findByIdAndOwner(long id, User owner);
 
     Optional<Customer> findByNameAndOwner(String name, User owner);
 
-    Page<Customer> findAllByOwner(User owner, Pageable pageable);
+    @Query("SELECT c.name FROM Customer c WHERE c.name IN :names AND c.owner = :owner")
+    List<String> findNamesByNameInAndOwner(Collection<String> names, User owner);
 
-    List<Customer> findAllByOwner(User owner, Sort sort);
+    Slice<Customer> findAllByOwner(User owner, Pageable pageable);
 
-    List<Customer> findAllByNameContainingIgnoreCaseAndOwner(String name, User owner);
+    @Query("SELECT c FROM Customer c WHERE c.owner = :owner AND (c.name, c.id) > (:name, :id) ORDER BY c.name, c.id")
+    Slice<Customer> findAllByOwnerAfter(User owner, String name, long id, Pageable pageable);
+
+    @Query("SELECT c FROM Customer c WHERE c.owner = :owner AND (c.name, c.id) < (:name, :id) ORDER BY c.name DESC, c.id DESC")
+    Slice<Customer> findAllByOwnerBefore(User owner, String name, long id, Pageable pageable);
+
+    @Query("""
+            SELECT new io.github.augustoravazoli.inventorymanagementsystem.customer.CustomerOption(c.id, c.name)
+            FROM Customer c
+            WHERE c.owner = :owner AND LOWER(c.name) LIKE LOWER(:prefix) ESCAPE '\\'
+            ORDER BY LOWER(c.name)
+            """)
+    List<CustomerOption> findOptionsByNameStartingWithAndOwner(String prefix, User owner, Pageable pageable);
+
+    @Query("""
+            SELECT new io.github.augustoravazoli.inventorymanagementsystem.customer.CustomerOption(c.id, c.name)
+            FROM Customer c
+            WHERE c.id IN :ids AND c.owner = :owner
+            """)
+    List<CustomerOption> findOptionsByIdInAndOwner(Collection<Long> ids, User owner);
+
+    @Query("""
+            SELECT new io.github.augustoravazoli.inventorymanagementsystem.customer.CustomerOption(c.id, c.name)
+            FROM Customer c
+            WHERE c.name IN :names AND c.owner = :owner
+            """)
+    List<CustomerOption> findOptionsByNameInAndOwner(Collection<String> names, User owner);
+
+    @Query(value = "SELECT count_owner_rows('customer', :ownerId, NULL, :threshold)", nativeQuery = true)
+    long countByOwner(long ownerId, int threshold);
+
+    @Query(
+            value = """
+                    SELECT * FROM customer
+                    WHERE owner_id = :#{#owner.id}
+                    AND (LOWER(name) LIKE LOWER(:pattern) ESCAPE '\\' OR LOWER(:name) <% LOWER(name))
+                    ORDER BY word_similarity(LOWER(:name), LOWER(name)) DESC, name
+                    LIMIT :limit
+                    """,
+            nativeQuery = true
+    )
+    List<Customer> searchAllByNameAndOwner(String name, String pattern, User owner, int limit);
+
+    @Query(
+            value = """
+                    SELECT id FROM customer
+                    WHERE owner_id = :#{#owner.id}
+                    AND (LOWER(name) LIKE LOWER(:pattern) ESCAPE '\\' OR LOWER(:name) <% LOWER(name))
+                    ORDER BY word_similarity(LOWER(:name), LOWER(name)) DESC, name
+                    LIMIT :limit
+                    """,
+            nativeQuery = true
+    )
+    List<Long> searchIdsByNameAndOwner(String name, String pattern, User owner, int limit);
 
 }
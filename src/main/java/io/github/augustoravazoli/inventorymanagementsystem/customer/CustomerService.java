@@ -2,15 +2,24 @@ package io.github.augustoravazoli.inventorymanagementsystem.customer;
 
 import io.github.augustoravazoli.inventorymanagementsystem.order.OrderRepository;
 import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Count;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Cursor;
+import io.github.augustoravazoli.inventorymanagementsystem.util.CursorSlice;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Search;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class CustomerService {
@@ -37,32 +46,64 @@ public class CustomerService {
     }
 
     @Transactional
-    public void createAllCustomers(List<Customer> customers, User owner) {
+    public void createAllCustomers(Stream<List<Customer>> chunks, User owner) {
         logger.info("Creating multiples customers, duplicates will be ignored");
-        var newCustomers = customers.stream()
-                .filter(customer -> !customerRepository.existsByNameAndOwner(customer.getName(), owner))
-                .peek(customer -> customer.setOwner(owner))
-                .toList();
-        customerRepository.saveAll(newCustomers);
-        newCustomers.forEach(customer -> logger.info("Customer {} created for user {}", customer.getName(), owner.getEmail()));
+        var start = System.nanoTime();
+        var rows = new AtomicInteger();
+        var created = chunks
+                .peek(chunk -> rows.addAndGet(chunk.size()))
+                .mapToInt(chunk -> createCustomers(chunk, owner))
+                .sum();
+        var elapsed = Math.max(System.nanoTime() - start, 1);
+        logger.info("Created {} of {} customers for user {} in {} ms ({} rows/sec)",
+                created, rows.get(), owner.getEmail(), elapsed / 1_000_000, rows.get() * 1_000_000_000L / elapsed);
     }
 
     @Transactional(readOnly = true)
-    public Page<Customer> listCustomers(int page, User owner) {
+    public CursorSlice<Customer> listCustomers(String after, String before, User owner) {
         logger.info("Listing customers paginated for user {}", owner.getEmail());
-        return customerRepository.findAllByOwner(owner, PageRequest.of(page - 1, 8, Sort.by("name")));
+        var pageable = PageRequest.ofSize(8);
+        if (before != null) {
+            var cursor = Cursor.decode(before);
+            return CursorSlice.before(customerRepository.findAllByOwnerBefore(owner, cursor.key(), cursor.id(), pageable), this::cursorOf);
+        }
+        if (after != null) {
+            var cursor = Cursor.decode(after);
+            return CursorSlice.after(customerRepository.findAllByOwnerAfter(owner, cursor.key(), cursor.id(), pageable), true, this::cursorOf);
+        }
+        return CursorSlice.after(customerRepository.findAllByOwner(owner, pageable.withSort(Sort.by("name", "id"))), false, this::cursorOf);
+    }
+
+    @Transactional(readOnly = true)
+    public Count countCustomerPages(User owner) {
+        logger.info("Counting customer pages for user {}", owner.getEmail());
+        return Count.of(customerRepository.countByOwner(owner.getId(), Count.EXACT_THRESHOLD)).toPages(8);
+    }
+
+    @Transactional(readOnly = true)
+    public List<CustomerOption> findCustomerOptions(String name, User owner) {
+        if (Search.isTooShortForTypeahead(name)) {
+            return List.of();
+        }
+        logger.info("Finding customer options starting with name {} for user {}", name, owner.getEmail());
+        return customerRepository.findOptionsByNameStartingWithAndOwner(
+                Search.startingWith(name), owner, PageRequest.ofSize(Search.TYPEAHEAD_LIMIT)
+        );
     }
 
     @Transactional(readOnly = true)
-    public List<Customer> listCustomers(User owner) {
-        logger.info("Listing customers for user {}", owner.getEmail());
-        return customerRepository.findAllByOwner(owner, Sort.by("name"));
+    public List<CustomerOption> findCustomerOptions(Collection<Long> ids, User owner) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        logger.info("Finding customer options with ids {} for user {}", ids, owner.getEmail());
+        return customerRepository.findOptionsByIdInAndOwner(ids, owner);
     }
 
     @Transactional(readOnly = true)
     public List<Customer> findCustomers(String name, User owner) {
         logger.info("Finding customers containing name {} for user {}", name, owner.getEmail());
-        return customerRepository.findAllByNameContainingIgnoreCaseAndOwner(name, owner);
+        return customerRepository.searchAllByNameAndOwner(name, Search.containing(name), owner, Search.RESULT_LIMIT);
     }
 
     @Transactional(readOnly = true)
@@ -102,4 +143,21 @@ public class CustomerService {
         logger.info("Customer with id {} of user {} deleted", id, owner.getEmail());
     }
 
+    private int createCustomers(List<Customer> chunk, User owner) {
+        var customers = chunk.stream().collect(Collectors.toMap(
+                Customer::getName,
+                Function.identity(),
+                (customer, duplicate) -> customer,
+                LinkedHashMap::new
+        ));
+        customerRepository.findNamesByNameInAndOwner(customers.keySet(), owner).forEach(customers::remove);
+        customers.values().forEach(customer -> customer.setOwner(owner));
+        customerRepository.insertAll(List.copyOf(customers.values()));
+        return customers.size();
+    }
+
+    private Cursor cursorOf(Customer customer) {
+        return new Cursor(customer.getName(), customer.getId());
+    }
+
 }
@@ -6,7 +6,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.Generated;
+import org.hibernate.annotations.Filter;
 import org.hibernate.validator.constraints.UniqueElements;
 
 import java.math.BigDecimal;
@@ -17,13 +17,14 @@ import java.util.stream.IntStream;
 
 @Entity
 @Table(name = "\"order\"", uniqueConstraints = @UniqueConstraint(columnNames = { "number", "owner_id" }))
+@Filter(name = "owner")
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", allocationSize = 50)
     private Long id;
 
-    @Generated
     @Column(nullable = false)
     private Integer number;
 
@@ -46,8 +47,12 @@ public class Order {
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItem> items = new ArrayList<>();
 
+    private Integer totalQuantity;
+
+    private BigDecimal totalAmount;
+
     @NotNull
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     private User owner;
 
     public Order() {}
@@ -73,6 +78,10 @@ public class Order {
         return number;
     }
 
+    public void setNumber(Integer number) {
+        this.number = number;
+    }
+
     public OrderStatus getStatus() {
         return status;
     }
@@ -120,6 +129,20 @@ public class Order {
                 .orElse(BigDecimal.ZERO);
     }
 
+    public Integer getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    @PrePersist
+    public void calculateTotals() {
+        totalQuantity = getQuantity();
+        totalAmount = getAmount();
+    }
+
     public User getOwner() {
         return owner;
     }
@@ -3,35 +3,57 @@ package io.github.augustoravazoli.inventorymanagementsystem.order;
 import io.github.augustoravazoli.inventorymanagementsystem.customer.CustomerService;
 import io.github.augustoravazoli.inventorymanagementsystem.product.ProductService;
 import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+import io.github.augustoravazoli.inventorymanagementsystem.util.CsvConversionException;
+import io.github.augustoravazoli.inventorymanagementsystem.util.CsvConverter;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
 @Controller
 @RequestMapping("/orders")
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderPrintService orderPrintService;
     private final ProductService productService;
     private final CustomerService customerService;
+    private final CsvConverter csvConverter;
 
-    public OrderController(OrderService orderService, ProductService productService, CustomerService customerService) {
+    public OrderController(
+            OrderService orderService,
+            OrderPrintService orderPrintService,
+            ProductService productService,
+            CustomerService customerService,
+            CsvConverter csvConverter
+    ) {
         this.orderService = orderService;
+        this.orderPrintService = orderPrintService;
         this.productService = productService;
         this.customerService = customerService;
+        this.csvConverter = csvConverter;
     }
 
     @GetMapping("/create")
     public String retrieveCreateOrderPage(@AuthenticationPrincipal User user, Model model) {
-        model.addAttribute("order", new OrderForm());
-        model.addAttribute("customers", customerService.listCustomers(user));
-        model.addAttribute("products", productService.listProducts(user));
+        var order = new OrderForm();
+        model.addAttribute("order", order);
+        addFormOptions(order, user, model);
         model.addAttribute("mode", "create");
         return "order/order-form";
     }
@@ -43,26 +65,46 @@ public class OrderController {
         } catch (ProductWithInsufficientStockException e) {
             model.addAttribute("insufficientStock", true);
             model.addAttribute("order", order);
-            model.addAttribute("customers", customerService.listCustomers(user));
-            model.addAttribute("products", productService.listProducts(user));
+            addFormOptions(order, user, model);
             model.addAttribute("mode", "create");
             return "order/order-form";
         }
         return "redirect:/orders/list?status=UNPAID";
     }
 
+    @PostMapping("/create-all")
+    public String createAllOrders(
+            @AuthenticationPrincipal User user,
+            @RequestParam(name = "orders") MultipartFile ordersFile,
+            RedirectAttributes redirectAttributes,
+            HttpSession session
+    ) {
+        try (var chunks = csvConverter.convertInChunks(ordersFile, OrderLineForm.class)) {
+            var result = orderService.createAllOrders(chunks.map(chunk -> chunk.stream().map(OrderLineForm::toEntity).toList()), user);
+            redirectAttributes.addFlashAttribute("importResult", result);
+        } catch (CsvConversionException e) {
+            redirectAttributes.addFlashAttribute("mappingError", true);
+        }
+        redirectAttributes.addAttribute("status", Objects.requireNonNullElse(session.getAttribute("status"), OrderStatus.UNPAID));
+        return "redirect:/orders/list";
+    }
+
     @GetMapping("/list")
     public String listOrders(
             @AuthenticationPrincipal User user,
             @RequestParam("status") OrderStatus status,
             @RequestParam(name = "page", defaultValue = "1") int page,
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "before", required = false) String before,
             Model model,
             HttpSession session
     ) {
-        var orderPage = orderService.listOrders(status, page, user);
-        model.addAttribute("orders", orderPage.getContent());
-        model.addAttribute("currentPage", orderPage.getNumber() + 1);
-        model.addAttribute("totalPages", orderPage.getTotalPages());
+        var orderSlice = orderService.listOrders(status, after, before, user);
+        model.addAttribute("orders", orderSlice.content());
+        model.addAttribute("currentPage", page);
+        model.addAttribute("previousCursor", orderSlice.previousCursor());
+        model.addAttribute("nextCursor", orderSlice.nextCursor());
+        model.addAttribute("totalPages", orderService.countOrderPages(status, user));
         session.setAttribute("status", status);
         return "order/order-table";
     }
@@ -82,22 +124,61 @@ public class OrderController {
     @GetMapping("/update/{id}")
     public String retrieveUpdateOrderPage(@AuthenticationPrincipal User user, @PathVariable("id") long id, Model model) {
         var order = orderService.findOrder(id, user);
-        model.addAttribute("order", order.toForm());
+        var form = order.toForm();
+        model.addAttribute("order", form);
         model.addAttribute("id", order.getId());
-        model.addAttribute("customers", customerService.listCustomers(user));
-        model.addAttribute("products", productService.listProducts(user));
+        addFormOptions(form, user, model);
         model.addAttribute("mode", "update");
         return "order/order-form";
     }
 
     @GetMapping("/print/{id}")
-    public ResponseEntity<?> printOrder(@AuthenticationPrincipal User user, @PathVariable("id") long id) {
+    public ResponseEntity<StreamingResponseBody> printOrder(@AuthenticationPrincipal User user, @PathVariable("id") long id) {
         var document = orderService.printOrder(id, user);
         return ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_PDF)
                 .header("Content-Disposition", "attachment; filename=" + document.filename())
                 .contentLength(document.size())
-                .body(document.content().toByteArray());
+                .body(document::writeTo);
+    }
+
+    @GetMapping("/print")
+    public ResponseEntity<StreamingResponseBody> printOrders(
+            @AuthenticationPrincipal User user,
+            @RequestParam(name = "ids", required = false) List<Long> ids,
+            @RequestParam(name = "status", required = false) OrderStatus status,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        var orderIds = orderPrintService.findOrderIds(ids, status, from, to, user);
+        var locale = LocaleContextHolder.getLocale();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header("Content-Disposition", "attachment; filename=orders.zip")
+                .body(output -> orderPrintService.printOrders(orderIds, user, locale, output));
+    }
+
+    @PostMapping("/print/{id}/jobs")
+    public ResponseEntity<PrintJob> submitPrintJob(@AuthenticationPrincipal User user, @PathVariable("id") long id) {
+        var printJob = orderPrintService.submitPrintJob(id, user);
+        return ResponseEntity.accepted()
+                .location(URI.create("/orders/print/jobs/" + printJob.getId()))
+                .body(printJob);
+    }
+
+    @GetMapping("/print/jobs/{jobId}")
+    public ResponseEntity<PrintJob> retrievePrintJob(@AuthenticationPrincipal User user, @PathVariable("jobId") String jobId) {
+        return ResponseEntity.ok(orderPrintService.findPrintJob(jobId, user));
+    }
+
+    @GetMapping("/print/jobs/{jobId}/download")
+    public ResponseEntity<?> downloadPrintJob(@AuthenticationPrincipal User user, @PathVariable("jobId") String jobId) {
+        var printJob = orderPrintService.findFinishedPrintJob(jobId, user);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header("Content-Disposition", "attachment; filename=" + printJob.getFilename())
+                .contentLength(printJob.size())
+                .body(new FileSystemResource(printJob.file()));
     }
 
     @PostMapping("/update/{id}")
@@ -115,8 +196,7 @@ public class OrderController {
             model.addAttribute("insufficientStock", true);
             model.addAttribute("order", order);
             model.addAttribute("id", id);
-            model.addAttribute("customers", customerService.listCustomers(user));
-            model.addAttribute("products", productService.listProducts(user));
+            addFormOptions(order, user, model);
             model.addAttribute("mode", "update");
             return "order/order-form";
         }
@@ -131,4 +211,13 @@ public class OrderController {
         return "redirect:/orders/list";
     }
 
+    private void addFormOptions(OrderForm order, User user, Model model) {
+        var customerIds = order.getCustomerId() != null ? List.of(order.getCustomerId()) : List.<Long>of();
+        var productIds = order.getItems() != null
+                ? order.getItems().stream().map(OrderItemForm::getProductId).filter(Objects::nonNull).toList()
+                : List.<Long>of();
+        model.addAttribute("customers", customerService.findCustomerOptions(customerIds, user));
+        model.addAttribute("products", productService.findProductOptions(productIds, user));
+    }
+
 }
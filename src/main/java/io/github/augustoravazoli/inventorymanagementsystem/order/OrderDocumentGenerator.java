@@ -1,13 +1,18 @@
 package io.github.augustoravazoli.inventorymanagementsystem.order;
 
 import io.github.augustoravazoli.inventorymanagementsystem.util.Document;
+import io.github.augustoravazoli.inventorymanagementsystem.util.DocumentCache;
 import io.github.augustoravazoli.inventorymanagementsystem.util.DocumentGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
 import java.util.Map;
 
 @Service
@@ -16,21 +21,59 @@ public class OrderDocumentGenerator {
     private static final Logger logger = LoggerFactory.getLogger(OrderDocumentGenerator.class);
 
     private final DocumentGenerator documentGenerator;
+    private final DocumentCache documentCache;
     private final MessageSource messageSource;
 
-    public OrderDocumentGenerator(DocumentGenerator documentGenerator, MessageSource messageSource) {
+    public OrderDocumentGenerator(DocumentGenerator documentGenerator, DocumentCache documentCache, MessageSource messageSource) {
         this.documentGenerator = documentGenerator;
+        this.documentCache = documentCache;
         this.messageSource = messageSource;
     }
 
     public Document generateOrderDocument(Order order) {
-        var prefix = messageSource.getMessage("order-document.file-prefix", null, LocaleContextHolder.getLocale());
-        var filename = String.format("%s_N%d_%s.pdf", prefix, order.getNumber(), order.getDate());
+        return generateOrderDocument(order, LocaleContextHolder.getLocale());
+    }
+
+    public Document generateOrderDocument(Order order, Locale locale) {
+        var key = cacheKey(order.getId());
+        var version = contentVersion(order, locale);
+        return documentCache.find(key, version).orElseGet(() -> {
+            var prefix = messageSource.getMessage("order-document.file-prefix", null, locale);
+            var filename = String.format("%s_N%d_%s.pdf", prefix, order.getNumber(), order.getDate());
+            return documentCache.put(key, version, filename, output -> renderOrderDocument(order, locale, output));
+        });
+    }
+
+    public void evictOrderDocument(long id) {
+        documentCache.evict(cacheKey(id));
+    }
+
+    private void renderOrderDocument(Order order, Locale locale, OutputStream output) {
         var template = "order/order-document";
         var variables = Map.<String, Object>of("order", order);
-        var locale = LocaleContextHolder.getLocale();
         logger.info("Generating order document");
-        return documentGenerator.generate(filename, template, variables, locale);
+        documentGenerator.generate(template, variables, locale, output);
+    }
+
+    private String cacheKey(Long id) {
+        return "order-" + id;
+    }
+
+    private String contentVersion(Order order, Locale locale) {
+        var content = new StringBuilder()
+                .append(locale).append('|')
+                .append(order.getNumber()).append('|')
+                .append(order.getDate()).append('|')
+                .append(order.getStatus()).append('|')
+                .append(order.getCustomer().getName()).append('|')
+                .append(order.getCustomer().getAddress()).append('|')
+                .append(order.getCustomer().getPhone());
+        order.getItems().forEach(item -> content.append('|')
+                .append(item.getProduct().getName()).append('|')
+                .append(item.getProduct().getPrice()).append('|')
+                .append(item.getQuantity())
+        );
+        return DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8));
     }
 
 }
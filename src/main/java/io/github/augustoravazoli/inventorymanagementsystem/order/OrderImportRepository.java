@@ -0,0 +1,9 @@
+package io.github.augustoravazoli.inventorymanagementsystem.order;
+
+import java.util.Collection;
+
+public interface OrderImportRepository {
+
+    void insertAll(Collection<Order> orders);
+
+}
@@ -0,0 +1,22 @@
+package io.github.augustoravazoli.inventorymanagementsystem.order;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.Collection;
+
+public class OrderImportRepositoryImpl implements OrderImportRepository {
+
+    private final EntityManager entityManager;
+
+    public OrderImportRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public void insertAll(Collection<Order> orders) {
+        orders.forEach(entityManager::persist);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+}
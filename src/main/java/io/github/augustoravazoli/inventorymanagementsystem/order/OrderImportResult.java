@@ -0,0 +1,9 @@
+package io.github.augustoravazoli.inventorymanagementsystem.order;
+
+public record OrderImportResult(int created, int rejected) {
+
+    public OrderImportResult plus(OrderImportResult other) {
+        return new OrderImportResult(created + other.created, rejected + other.rejected);
+    }
+
+}
@@ -0,0 +1,77 @@
+package io.github.augustoravazoli.inventorymanagementsystem.order;
+
+import com.opencsv.bean.CsvBindByPosition;
+import io.github.augustoravazoli.inventorymanagementsystem.customer.Customer;
+import io.github.augustoravazoli.inventorymanagementsystem.product.Product;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public class OrderLineForm {
+
+    @CsvBindByPosition(position = 0, required = true)
+    @NotBlank
+    private String customerName;
+
+    @CsvBindByPosition(position = 1, required = true)
+    @NotBlank
+    private String productName;
+
+    @CsvBindByPosition(position = 2, required = true)
+    @Min(1)
+    @NotNull
+    private Integer quantity;
+
+    @CsvBindByPosition(position = 3, required = true)
+    @NotNull
+    private OrderStatus status;
+
+    public OrderLineForm() {}
+
+    public OrderLineForm(String customerName, String productName, Integer quantity, OrderStatus status) {
+        this.customerName = customerName;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.status = status;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    public Order toEntity() {
+        var product = new Product(null, productName, null, null, null);
+        return new Order(status, new Customer(customerName, null, null), List.of(new OrderItem(quantity, product)));
+    }
+
+}
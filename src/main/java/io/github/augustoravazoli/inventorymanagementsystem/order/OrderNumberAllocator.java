@@ -0,0 +1,73 @@
+package io.github.augustoravazoli.inventorymanagementsystem.order;
+
+import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out order numbers from blocks reserved per owner in the order_sequence table.
+ * Numbers are unique per owner across nodes, but not gap free: numbers of a block that
+ * are not used before a restart, or that belong to a rolled back order, are skipped.
+ * Blocks are reserved in their own transaction, so numbers must be taken before the
+ * caller's transaction starts, otherwise a refill would need a second pooled connection.
+ */
+@Component
+public class OrderNumberAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderNumberAllocator.class);
+
+    private static final int BLOCK_SIZE = 20;
+
+    private final OrderRepository orderRepository;
+    private final Map<Long, Block> blocks = new ConcurrentHashMap<>();
+
+    public OrderNumberAllocator(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+    public int nextNumber(User owner) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Order numbers must be taken outside of a transaction");
+        }
+        while (true) {
+            var block = blocks.get(owner.getId());
+            if (block != null) {
+                var number = block.next.getAndIncrement();
+                if (number <= block.last) {
+                    return number;
+                }
+            }
+            allocateBlock(owner, block);
+        }
+    }
+
+    private void allocateBlock(User owner, Block exhausted) {
+        blocks.compute(owner.getId(), (ownerId, block) -> {
+            if (block != exhausted) {
+                return block;
+            }
+            var last = orderRepository.allocateOrderNumbers(ownerId, BLOCK_SIZE);
+            logger.info("Allocated order numbers {} to {} for user {}", last - BLOCK_SIZE + 1, last, owner.getEmail());
+            return new Block(last - BLOCK_SIZE + 1, last);
+        });
+    }
+
+    private static class Block {
+
+        private final AtomicInteger next;
+        private final int last;
+
+        private Block(int first, int last) {
+            this.next = new AtomicInteger(first);
+            this.last = last;
+        }
+
+    }
+
+}
@@ -0,0 +1,233 @@
+package io.github.augustoravazoli.inventorymanagementsystem.order;
+
+import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Document;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Print jobs and their files live in the memory and temporary directory of the node that accepted them,
+ * so the application is meant to run as a single instance or behind sticky sessions. A job that cannot be
+ * found, for example on another node or after it expired, makes the page fall back to synchronous printing.
+ */
+@Service
+public class OrderPrintService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderPrintService.class);
+
+    private static final int QUEUE_CAPACITY = 100;
+    private static final Duration PRINT_JOB_EXPIRATION = Duration.ofHours(1);
+    private static final int BATCH_WINDOW = 2 * Runtime.getRuntime().availableProcessors();
+
+    private final OrderRepository orderRepository;
+    private final OrderDocumentGenerator orderDocumentGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final Map<String, PrintJob> printJobs = new ConcurrentHashMap<>();
+
+    public OrderPrintService(OrderRepository orderRepository, OrderDocumentGenerator orderDocumentGenerator, PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.orderDocumentGenerator = orderDocumentGenerator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(Runtime.getRuntime().availableProcessors());
+        this.executor.setMaxPoolSize(Runtime.getRuntime().availableProcessors());
+        this.executor.setQueueCapacity(QUEUE_CAPACITY);
+        this.executor.setThreadNamePrefix("order-print-");
+        this.executor.initialize();
+    }
+
+    public PrintJob submitPrintJob(long id, User owner) {
+        if (!orderRepository.existsByIdAndOwner(id, owner)) {
+            logger.info("Order with id {} not found, throwing exception", id);
+            throw new OrderNotFoundException();
+        }
+        var printJob = new PrintJob(id, owner);
+        var locale = LocaleContextHolder.getLocale();
+        printJobs.put(printJob.getId(), printJob);
+        try {
+            executor.execute(() -> print(printJob, owner, locale));
+        } catch (TaskRejectedException e) {
+            printJobs.remove(printJob.getId());
+            logger.info("Print queue is full, throwing exception");
+            throw new PrintQueueFullException();
+        }
+        logger.info("Print job {} submitted for order with id {} of user {}", printJob.getId(), id, owner.getEmail());
+        return printJob;
+    }
+
+    public PrintJob findPrintJob(String jobId, User owner) {
+        var printJob = printJobs.get(jobId);
+        if (printJob == null || !printJob.isOwnedBy(owner)) {
+            logger.info("Print job {} not found, throwing exception", jobId);
+            throw new PrintJobNotFoundException();
+        }
+        return printJob;
+    }
+
+    public PrintJob findFinishedPrintJob(String jobId, User owner) {
+        var printJob = findPrintJob(jobId, owner);
+        if (printJob.getStatus() != PrintJobStatus.DONE) {
+            logger.info("Print job {} is {}, throwing exception", jobId, printJob.getStatus());
+            throw new PrintJobNotFinishedException();
+        }
+        return printJob;
+    }
+
+    public void deleteExpiredPrintJobs() {
+        var expiration = Instant.now().minus(PRINT_JOB_EXPIRATION);
+        printJobs.values().removeIf(printJob -> {
+            if (printJob.isCreatedBefore(expiration) && printJob.getStatus() != PrintJobStatus.PENDING) {
+                printJob.deleteFile();
+                logger.info("Print job {} expired and was deleted", printJob.getId());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    public List<Long> findOrderIds(List<Long> ids, OrderStatus status, LocalDate from, LocalDate to, User owner) {
+        if (ids != null && !ids.isEmpty()) {
+            return orderRepository.findIdsByIdInAndOwner(ids, owner);
+        }
+        if (status == null) {
+            logger.info("Neither order ids nor status given, throwing exception");
+            throw new InvalidPrintFilterException();
+        }
+        if (from != null || to != null) {
+            var start = from != null ? from : LocalDate.EPOCH;
+            var end = to != null ? to : LocalDate.now();
+            return orderRepository.findIdsByStatusAndDateBetweenAndOwner(status, start, end, owner);
+        }
+        return orderRepository.findIdsByStatusAndOwner(status, owner);
+    }
+
+    public void printOrders(List<Long> ids, User owner, Locale locale, OutputStream output) throws IOException {
+        logger.info("Printing {} orders for user {}", ids.size(), owner.getEmail());
+        var window = new ArrayDeque<Future<Document>>();
+        var fetched = new ArrayDeque<Order>();
+        var remaining = ids.iterator();
+        try (var zip = new ZipOutputStream(output)) {
+            while (remaining.hasNext() || !fetched.isEmpty() || !window.isEmpty()) {
+                while ((remaining.hasNext() || !fetched.isEmpty()) && window.size() < BATCH_WINDOW) {
+                    if (fetched.isEmpty()) {
+                        fetched.addAll(fetchOrders(remaining, owner));
+                    }
+                    window.add(render(fetched.poll(), locale));
+                }
+                try (var document = await(window.poll())) {
+                    zip.putNextEntry(new ZipEntry(document.filename()));
+                    document.writeTo(zip);
+                    zip.closeEntry();
+                }
+            }
+        } finally {
+            window.forEach(this::discard);
+        }
+        logger.info("Printed {} orders for user {}", ids.size(), owner.getEmail());
+    }
+
+    private List<Order> fetchOrders(Iterator<Long> remaining, User owner) {
+        var ids = new ArrayList<Long>(BATCH_WINDOW);
+        while (remaining.hasNext() && ids.size() < BATCH_WINDOW) {
+            ids.add(remaining.next());
+        }
+        var orders = transactionTemplate.execute(status -> orderRepository.findAllByIdInAndOwner(ids, owner));
+        if (orders.size() < ids.size()) {
+            logger.info("Some orders with ids {} not found, throwing exception", ids);
+            throw new OrderNotFoundException();
+        }
+        return orders.stream()
+                .sorted(Comparator.comparingInt(order -> ids.indexOf(order.getId())))
+                .toList();
+    }
+
+    private Future<Document> render(Order order, Locale locale) {
+        Callable<Document> task = () -> orderDocumentGenerator.generateOrderDocument(order, locale);
+        try {
+            return executor.submit(task);
+        } catch (TaskRejectedException e) {
+            var future = new FutureTask<>(task);
+            future.run();
+            return future;
+        }
+    }
+
+    private Document await(Future<Document> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void discard(Future<Document> future) {
+        if (!future.cancel(true) && future.state() == Future.State.SUCCESS) {
+            try {
+                future.resultNow().close();
+            } catch (IOException e) {
+                logger.info("Discarded document could not be closed", e);
+            }
+        }
+    }
+
+    private void print(PrintJob printJob, User owner, Locale locale) {
+        try {
+            var order = transactionTemplate.execute(status -> orderRepository.findByIdAndOwner(printJob.orderId(), owner))
+                    .orElseThrow(OrderNotFoundException::new);
+            var document = orderDocumentGenerator.generateOrderDocument(order, locale);
+            var file = Files.createTempFile("order-print-", ".pdf");
+            try (var output = Files.newOutputStream(file)) {
+                document.writeTo(output);
+            }
+            printJob.done(document.filename(), file, document.size());
+            logger.info("Print job {} done", printJob.getId());
+        } catch (IOException | RuntimeException e) {
+            printJob.fail();
+            logger.info("Print job {} failed", printJob.getId(), e);
+        }
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        executor.shutdown();
+        printJobs.values().forEach(PrintJob::deleteFile);
+    }
+
+}
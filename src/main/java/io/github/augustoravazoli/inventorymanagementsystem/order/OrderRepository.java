@@ -1,25 +1,127 @@
 package io.github.augustoravazoli.inventorymanagementsystem.order;
 
 import io.github.augustoravazoli.inventorymanagementsystem.user.User;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.jpa.repository.query.Procedure;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderImportRepository {
 
     boolean existsByCustomerIdAndOwner(long customerId, User owner);
 
     boolean existsByItemsProductIdAndOwner(long productId, User owner);
 
+    boolean existsByIdAndOwner(long id, User owner);
+
+    @EntityGraph(attributePaths = { "customer", "items", "items.product" })
     Optional<Order> findByIdAndOwner(long id, User owner);
 
-    Page<Order> findAllByStatusAndOwner(OrderStatus status, User owner, Pageable pageable);
+    @EntityGraph(attributePaths = { "customer", "items", "items.product" })
+    List<Order> findAllByIdInAndOwner(Collection<Long> ids, User owner);
+
+    @Query("""
+            SELECT new io.github.augustoravazoli.inventorymanagementsystem.order.OrderSummary(
+                o.id, o.number, c.name, o.date, o.totalQuantity, o.totalAmount
+            )
+            FROM Order o
+            JOIN o.customer c
+            WHERE o.status = :status AND o.owner = :owner
+            ORDER BY o.date, o.id
+            """)
+    Slice<OrderSummary> findSummariesByStatusAndOwner(OrderStatus status, User owner, Pageable pageable);
+
+    @Query("""
+            SELECT new io.github.augustoravazoli.inventorymanagementsystem.order.OrderSummary(
+                o.id, o.number, c.name, o.date, o.totalQuantity, o.totalAmount
+            )
+            FROM Order o
+            JOIN o.customer c
+            WHERE o.status = :status AND o.owner = :owner AND (o.date, o.id) > (:date, :id)
+            ORDER BY o.date, o.id
+            """)
+    Slice<OrderSummary> findSummariesByStatusAndOwnerAfter(OrderStatus status, User owner, LocalDate date, long id, Pageable pageable);
+
+    @Query("""
+            SELECT new io.github.augustoravazoli.inventorymanagementsystem.order.OrderSummary(
+                o.id, o.number, c.name, o.date, o.totalQuantity, o.totalAmount
+            )
+            FROM Order o
+            JOIN o.customer c
+            WHERE o.status = :status AND o.owner = :owner AND (o.date, o.id) < (:date, :id)
+            ORDER BY o.date DESC, o.id DESC
+            """)
+    Slice<OrderSummary> findSummariesByStatusAndOwnerBefore(OrderStatus status, User owner, LocalDate date, long id, Pageable pageable);
+
+    @Query("""
+            SELECT new io.github.augustoravazoli.inventorymanagementsystem.order.OrderSummary(
+                o.id, o.number, c.name, o.date, o.totalQuantity, o.totalAmount
+            )
+            FROM Order o
+            JOIN o.customer c
+            WHERE o.status = :status AND c.id IN :customerIds AND o.owner = :owner
+            ORDER BY c.name, o.date DESC, o.id DESC
+            """)
+    List<OrderSummary> findSummariesByStatusAndCustomerIdInAndOwner(
+            OrderStatus status,
+            Collection<Long> customerIds,
+            User owner,
+            Pageable pageable
+    );
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "\"order\""))
+    @Query(
+            value = """
+                    UPDATE "order" o
+                    SET total_amount = t.amount
+                    FROM (
+                        SELECT oi.order_id, SUM(oi.quantity * p.price) AS amount
+                        FROM order_item oi
+                        INNER JOIN product p
+                        ON oi.product_id = p.id
+                        WHERE oi.order_id IN (SELECT order_id FROM order_item WHERE product_id IN (:productIds))
+                        GROUP BY oi.order_id
+                    ) t
+                    WHERE o.id = t.order_id AND o.status = 'UNPAID'
+                    """,
+            nativeQuery = true
+    )
+    void updateUnpaidOrderAmountsByProductIdIn(Collection<Long> productIds);
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "SELECT allocate_order_numbers(:ownerId, :blockSize)", nativeQuery = true)
+    int allocateOrderNumbers(long ownerId, int blockSize);
+
+    @Transactional
+    @Procedure("calculate_missing_order_totals")
+    void calculateMissingOrderTotals();
+
+    @Query(value = "SELECT count_owner_rows('order', :ownerId, :status, :threshold)", nativeQuery = true)
+    long countByStatusAndOwner(String status, long ownerId, int threshold);
+
+    @Query("SELECT o.id FROM Order o WHERE o.id IN :ids AND o.owner = :owner ORDER BY o.number")
+    List<Long> findIdsByIdInAndOwner(Collection<Long> ids, User owner);
+
+    @Query("SELECT o.id FROM Order o WHERE o.status = :status AND o.owner = :owner ORDER BY o.number")
+    List<Long> findIdsByStatusAndOwner(OrderStatus status, User owner);
 
-    List<Order> findAllByStatusAndCustomerNameContainingIgnoreCaseAndOwner(OrderStatus status, String customerName, User owner);
+    @Query("SELECT o.id FROM Order o WHERE o.status = :status AND o.date BETWEEN :from AND :to AND o.owner = :owner ORDER BY o.number")
+    List<Long> findIdsByStatusAndDateBetweenAndOwner(OrderStatus status, LocalDate from, LocalDate to, User owner);
 
     @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items")
     List<Order> findAllWithItems();
@@ -1,20 +1,36 @@
 package io.github.augustoravazoli.inventorymanagementsystem.order;
 
 import io.github.augustoravazoli.inventorymanagementsystem.customer.Customer;
+import io.github.augustoravazoli.inventorymanagementsystem.customer.CustomerOption;
 import io.github.augustoravazoli.inventorymanagementsystem.customer.CustomerRepository;
+import io.github.augustoravazoli.inventorymanagementsystem.product.Product;
 import io.github.augustoravazoli.inventorymanagementsystem.product.ProductRepository;
 import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Count;
+import io.github.augustoravazoli.inventorymanagementsystem.util.CsvConverter;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Cursor;
+import io.github.augustoravazoli.inventorymanagementsystem.util.CursorSlice;
 import io.github.augustoravazoli.inventorymanagementsystem.util.Document;
+import io.github.augustoravazoli.inventorymanagementsystem.util.InvalidCursorException;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Search;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.IntStream;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class OrderService {
@@ -25,34 +41,104 @@ public class OrderService {
     private final ProductRepository productRepository;
     private final CustomerRepository customerRepository;
     private final OrderDocumentGenerator orderDocumentGenerator;
+    private final OrderNumberAllocator orderNumberAllocator;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
 
-    public OrderService(OrderRepository orderRepository, ProductRepository productRepository, CustomerRepository customerRepository, OrderDocumentGenerator orderDocumentGenerator) {
+    public OrderService(
+            OrderRepository orderRepository,
+            ProductRepository productRepository,
+            CustomerRepository customerRepository,
+            OrderDocumentGenerator orderDocumentGenerator,
+            OrderNumberAllocator orderNumberAllocator,
+            PlatformTransactionManager transactionManager
+    ) {
         this.orderRepository = orderRepository;
         this.productRepository = productRepository;
         this.customerRepository = customerRepository;
         this.orderDocumentGenerator = orderDocumentGenerator;
+        this.orderNumberAllocator = orderNumberAllocator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
     }
 
-    @Transactional
     public void createOrder(Order order, User owner) {
-        checkCustomer(order.getCustomer(), owner);
-        checkProductAvailabilityForNewItems(order.getItems(), owner);
-        updateProductQuantities(order.getItems(), "decrease", owner);
-        order.setOwner(owner);
-        orderRepository.save(order);
+        order.setNumber(orderNumberAllocator.nextNumber(owner));
+        transactionTemplate.executeWithoutResult(status -> {
+            checkCustomer(order.getCustomer(), owner);
+            var products = findProducts(order.getItems(), owner);
+            decreaseProductQuantities(order.getItems(), owner);
+            calculateTotals(order, products);
+            order.setOwner(owner);
+            orderRepository.save(order);
+        });
         logger.info("Order created for customer {} of user {}", order.getCustomer().getName(), owner.getEmail());
     }
 
+    public OrderImportResult createAllOrders(Stream<List<Order>> chunks, User owner) {
+        logger.info("Creating multiple orders, orders with insufficient stock will be rejected");
+        var start = System.nanoTime();
+        var result = new OrderImportResult(0, 0);
+        var orders = new ArrayList<Order>(CsvConverter.CHUNK_SIZE);
+        var lines = chunks.flatMap(List::stream).iterator();
+        while (lines.hasNext()) {
+            var line = lines.next();
+            if (!orders.isEmpty() && isSameOrder(orders.getLast(), line)) {
+                addItems(orders.getLast(), line.getItems());
+                continue;
+            }
+            if (orders.size() == CsvConverter.CHUNK_SIZE) {
+                result = result.plus(saveOrdersInTransaction(orders, owner));
+                orders.clear();
+            }
+            orders.add(line);
+        }
+        if (!orders.isEmpty()) {
+            result = result.plus(saveOrdersInTransaction(orders, owner));
+        }
+        var elapsed = Math.max(System.nanoTime() - start, 1);
+        var total = result.created() + result.rejected();
+        logger.info("Imported {} orders for user {}, {} of them rejected, in {} ms ({} orders/sec)",
+                result.created(), owner.getEmail(), result.rejected(), elapsed / 1_000_000, total * 1_000_000_000L / elapsed);
+        return result;
+    }
+
     @Transactional(readOnly = true)
-    public Page<Order> listOrders(OrderStatus status, int page, User owner) {
+    public CursorSlice<OrderSummary> listOrders(OrderStatus status, String after, String before, User owner) {
         logger.info("Listing {} orders paginated for user {}", status, owner.getEmail());
-        return orderRepository.findAllByStatusAndOwner(status, owner, PageRequest.of(page - 1, 8, Sort.by("date")));
+        var pageable = PageRequest.ofSize(8);
+        if (before != null) {
+            var cursor = Cursor.decode(before);
+            var orders = orderRepository.findSummariesByStatusAndOwnerBefore(status, owner, parseDate(cursor), cursor.id(), pageable);
+            return CursorSlice.before(orders, this::cursorOf);
+        }
+        if (after != null) {
+            var cursor = Cursor.decode(after);
+            var orders = orderRepository.findSummariesByStatusAndOwnerAfter(status, owner, parseDate(cursor), cursor.id(), pageable);
+            return CursorSlice.after(orders, true, this::cursorOf);
+        }
+        return CursorSlice.after(orderRepository.findSummariesByStatusAndOwner(status, owner, pageable), false, this::cursorOf);
     }
 
     @Transactional(readOnly = true)
-    public List<Order> findOrders(OrderStatus status, String customerName, User owner) {
+    public Count countOrderPages(OrderStatus status, User owner) {
+        logger.info("Counting {} order pages for user {}", status, owner.getEmail());
+        return Count.of(orderRepository.countByStatusAndOwner(status.name(), owner.getId(), Count.EXACT_THRESHOLD)).toPages(8);
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderSummary> findOrders(OrderStatus status, String customerName, User owner) {
         logger.info("Finding {} orders containing customer name {} for user {}", status, customerName, owner.getEmail());
-        return orderRepository.findAllByStatusAndCustomerNameContainingIgnoreCaseAndOwner(status, customerName, owner);
+        var customerIds = customerRepository.searchIdsByNameAndOwner(
+                customerName, Search.containing(customerName), owner, Search.RESULT_LIMIT
+        );
+        if (customerIds.isEmpty()) {
+            return List.of();
+        }
+        return orderRepository.findSummariesByStatusAndCustomerIdInAndOwner(
+                status, customerIds, owner, PageRequest.ofSize(Search.RESULT_LIMIT)
+        );
     }
 
     @Transactional(readOnly = true)
@@ -62,9 +148,9 @@ public class OrderService {
                 .orElseThrow(OrderNotFoundException::new);
     }
 
-    @Transactional(readOnly = true)
     public Document printOrder(long id, User owner) {
-        var order = orderRepository.findByIdAndOwner(id, owner).orElseThrow(OrderNotFoundException::new);
+        var order = readOnlyTransactionTemplate.execute(status -> orderRepository.findByIdAndOwner(id, owner))
+                .orElseThrow(OrderNotFoundException::new);
         logger.info("Printing order with id {} for user {}", id, owner.getEmail());
         return orderDocumentGenerator.generateOrderDocument(order);
     }
@@ -73,11 +159,12 @@ public class OrderService {
     public void updateOrder(long id, Order updatedOrder, User owner) {
         var order = orderRepository.findByIdAndOwner(id, owner).orElseThrow(OrderNotFoundException::new);
         checkCustomer(updatedOrder.getCustomer(), owner);
-        updateProductQuantitiesForExistingItems(order, updatedOrder, owner);
-        decreaseProductQuantitiesForNewItems(order, updatedOrder, owner);
-        resetProductQuantitiesForRemovedItems(order, updatedOrder, owner);
+        var products = findProducts(updatedOrder.getItems(), owner);
+        updateProductQuantities(order.getItems(), updatedOrder.getItems(), owner);
         updateOrderDetails(order, updatedOrder);
+        calculateTotals(order, products);
         orderRepository.save(order);
+        orderDocumentGenerator.evictOrderDocument(id);
         logger.info("Order with id {} of user {} updated", order.getId(), owner.getEmail());
     }
 
@@ -86,9 +173,10 @@ public class OrderService {
         var order = orderRepository.findByIdAndOwner(id, owner).orElseThrow(OrderNotFoundException::new);
         if (order.getStatus() == OrderStatus.UNPAID) {
             logger.info("Order status is UNPAID, reset associated product quantities");
-            updateProductQuantities(order.getItems(), "increase", owner);
+            increaseProductQuantities(order.getItems(), owner);
         }
         orderRepository.delete(order);
+        orderDocumentGenerator.evictOrderDocument(id);
         logger.info("Order with id {} of user {} deleted", id, owner.getEmail());
     }
 
@@ -99,59 +187,155 @@ public class OrderService {
         }
     }
 
-    private void checkProductAvailabilityForNewItems(List<OrderItem> items, User owner) {
-        for (var item : items) {
-            var product = productRepository.findByIdAndOwner(item.getProduct().getId(), owner)
-                    .orElseThrow(InvalidProductException::new);
-            if (item.getQuantity() > product.getQuantity()) {
-                logger.info("Order items contains products with insufficient stock, throwing exception");
-                throw new ProductWithInsufficientStockException();
-            }
+    private Map<Long, Product> findProducts(List<OrderItem> items, User owner) {
+        var ids = items.stream().map(item -> item.getProduct().getId()).collect(Collectors.toSet());
+        var products = productRepository.findAllByIdInAndOwner(ids, owner).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        if (products.size() < ids.size()) {
+            logger.info("Order items contains nonexistent products, throwing exception");
+            throw new InvalidProductException();
         }
+        return products;
+    }
+
+    private boolean isSameOrder(Order order, Order line) {
+        return order.getStatus() == line.getStatus()
+               && order.getCustomer().getName().equals(line.getCustomer().getName());
+    }
+
+    private void addItems(Order order, List<OrderItem> lineItems) {
+        var items = new ArrayList<>(order.getItems());
+        lineItems.forEach(lineItem -> items.stream()
+                .filter(item -> item.getProduct().getName().equals(lineItem.getProduct().getName()))
+                .findFirst()
+                .ifPresentOrElse(
+                        item -> item.setQuantity(item.getQuantity() + lineItem.getQuantity()),
+                        () -> items.add(lineItem)
+                ));
+        order.setItems(items);
     }
 
-    private void updateProductQuantities(List<OrderItem> items, String operation, User owner) {
-        for (var item : items) {
-            var product = productRepository.findByIdAndOwner(item.getProduct().getId(), owner).orElseThrow();
-            switch (operation) {
-                case "increase" -> product.increaseQuantity(item.getQuantity());
-                case "decrease" -> product.decreaseQuantity(item.getQuantity());
-                default -> throw new IllegalArgumentException("No case found for operation " + operation);
+    private OrderImportResult saveOrdersInTransaction(List<Order> orders, User owner) {
+        var numbers = orders.stream().map(order -> orderNumberAllocator.nextNumber(owner)).toList().iterator();
+        return transactionTemplate.execute(status -> saveOrders(orders, numbers, owner));
+    }
+
+    private OrderImportResult saveOrders(List<Order> orders, Iterator<Integer> numbers, User owner) {
+        var customerIds = findCustomerIds(orders, owner);
+        var products = findProductsByName(orders, owner);
+        var stock = productRepository.lockQuantities(products.values().stream().map(Product::getId).collect(Collectors.toSet()), owner);
+        products.values().removeIf(product -> !stock.containsKey(product.getId()));
+        var quantities = new HashMap<Long, Integer>();
+        var acceptedOrders = new ArrayList<Order>();
+        for (var order : orders) {
+            var customerName = order.getCustomer().getName();
+            if (!customerIds.containsKey(customerName)
+                || !order.getItems().stream().allMatch(item -> products.containsKey(item.getProduct().getName()))) {
+                logger.info("Order for customer {} contains nonexistent customer or products, rejecting it", customerName);
+                continue;
+            }
+            order.getItems().forEach(item -> item.setProduct(products.get(item.getProduct().getName())));
+            var orderQuantities = toProductQuantities(order.getItems());
+            if (orderQuantities.entrySet().stream().anyMatch(entry -> stock.get(entry.getKey()) < entry.getValue())) {
+                logger.info("Order for customer {} contains products with insufficient stock, rejecting it", customerName);
+                continue;
             }
-            logger.info("Updating product {}, new quantity is {}", product.getName(), product.getQuantity());
+            orderQuantities.forEach((id, quantity) -> {
+                stock.merge(id, -quantity, Integer::sum);
+                quantities.merge(id, quantity, Integer::sum);
+            });
+            order.setCustomer(new Customer(customerIds.get(customerName)));
+            order.setNumber(numbers.next());
+            order.setOwner(owner);
+            acceptedOrders.add(order);
         }
+        if (!quantities.isEmpty()) {
+            decreaseProductQuantities(quantities, owner);
+        }
+        orderRepository.insertAll(acceptedOrders);
+        return new OrderImportResult(acceptedOrders.size(), orders.size() - acceptedOrders.size());
+    }
+
+    private Map<String, Long> findCustomerIds(List<Order> orders, User owner) {
+        var names = orders.stream().map(order -> order.getCustomer().getName()).collect(Collectors.toSet());
+        return customerRepository.findOptionsByNameInAndOwner(names, owner).stream()
+                .collect(Collectors.toMap(CustomerOption::getName, CustomerOption::getId));
     }
 
-    private void updateProductQuantitiesForExistingItems(Order order, Order updatedOrder, User owner) {
-        var updatedItems = updatedOrder.getItems().stream().filter(order.getItems()::contains).toList();
-        var items = order.getItems().stream().filter(updatedItems::contains).toList();
-        checkProductAvailabilityForExistingItems(items, updatedItems, owner);
-        updateProductQuantities(items, "increase", owner);
-        updateProductQuantities(updatedItems, "decrease", owner);
+    private Map<String, Product> findProductsByName(List<Order> orders, User owner) {
+        var names = orders.stream()
+                .flatMap(order -> order.getItems().stream())
+                .map(item -> item.getProduct().getName())
+                .collect(Collectors.toSet());
+        return productRepository.findAllByNameInAndOwner(names, owner).stream()
+                .collect(Collectors.toMap(Product::getName, Function.identity()));
     }
 
-    private void checkProductAvailabilityForExistingItems(List<OrderItem> items, List<OrderItem> updatedItems, User owner) {
-        IntStream.range(0, updatedItems.size()).forEach(i -> {
-            var product = productRepository.findByIdAndOwner(items.get(i).getProduct().getId(), owner)
-                    .orElseThrow(InvalidProductException::new);
-            var quantity = (int) items.get(i).getQuantity();
-            var updatedQuantity = (int) updatedItems.get(i).getQuantity();
-            if (updatedQuantity - quantity > product.getQuantity()) {
-                logger.info("Order items contains products with insufficient stock, throwing exception");
-                throw new ProductWithInsufficientStockException();
+    private void updateProductQuantities(List<OrderItem> items, List<OrderItem> updatedItems, User owner) {
+        var deltas = new HashMap<Long, Integer>();
+        items.forEach(item -> deltas.merge(item.getProduct().getId(), -item.getQuantity(), Integer::sum));
+        updatedItems.forEach(item -> deltas.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum));
+        var increases = new HashMap<Long, Integer>();
+        var decreases = new HashMap<Long, Integer>();
+        deltas.forEach((id, delta) -> {
+            if (delta < 0) {
+                increases.put(id, -delta);
+            } else if (delta > 0) {
+                decreases.put(id, delta);
             }
         });
+        if (!increases.isEmpty()) {
+            increaseProductQuantities(increases, owner);
+        }
+        if (!decreases.isEmpty()) {
+            decreaseProductQuantities(decreases, owner);
+        }
+    }
+
+    private void decreaseProductQuantities(List<OrderItem> items, User owner) {
+        decreaseProductQuantities(toProductQuantities(items), owner);
+    }
+
+    private void decreaseProductQuantities(Map<Long, Integer> quantities, User owner) {
+        if (productRepository.decreaseQuantities(quantities, owner) < quantities.size()) {
+            logger.info("Order items contains products with insufficient stock, throwing exception");
+            throw new ProductWithInsufficientStockException();
+        }
+        logger.info("Decreased quantities of products {}", quantities.keySet());
+    }
+
+    private void increaseProductQuantities(List<OrderItem> items, User owner) {
+        increaseProductQuantities(toProductQuantities(items), owner);
+    }
+
+    private void increaseProductQuantities(Map<Long, Integer> quantities, User owner) {
+        productRepository.increaseQuantities(quantities, owner);
+        logger.info("Increased quantities of products {}", quantities.keySet());
     }
 
-    private void decreaseProductQuantitiesForNewItems(Order order, Order updatedOrder, User owner) {
-        var newItems = updatedOrder.getItems().stream().filter(item -> !order.getItems().contains(item)).toList();
-        checkProductAvailabilityForNewItems(newItems, owner);
-        updateProductQuantities(newItems, "decrease", owner);
+    private Map<Long, Integer> toProductQuantities(List<OrderItem> items) {
+        return items.stream().collect(Collectors.toMap(
+                item -> item.getProduct().getId(),
+                OrderItem::getQuantity,
+                Integer::sum
+        ));
     }
 
-    private void resetProductQuantitiesForRemovedItems(Order order, Order updatedOrder, User owner) {
-        var removedItems = order.getItems().stream().filter(item -> !updatedOrder.getItems().contains(item)).toList();
-        updateProductQuantities(removedItems, "increase", owner);
+    private void calculateTotals(Order order, Map<Long, Product> products) {
+        order.getItems().forEach(item -> item.setProduct(products.get(item.getProduct().getId())));
+        order.calculateTotals();
+    }
+
+    private Cursor cursorOf(OrderSummary order) {
+        return new Cursor(order.getDate().toString(), order.getId());
+    }
+
+    private LocalDate parseDate(Cursor cursor) {
+        try {
+            return LocalDate.parse(cursor.key());
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException();
+        }
     }
 
     private void updateOrderDetails(Order order, Order updatedOrder) {
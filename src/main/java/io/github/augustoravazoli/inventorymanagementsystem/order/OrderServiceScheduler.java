@@ -0,0 +1,29 @@
+package io.github.augustoravazoli.inventorymanagementsystem.order;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+public class OrderServiceScheduler {
+
+    private final OrderRepository orderRepository;
+    private final OrderPrintService orderPrintService;
+
+    public OrderServiceScheduler(OrderRepository orderRepository, OrderPrintService orderPrintService) {
+        this.orderRepository = orderRepository;
+        this.orderPrintService = orderPrintService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void calculateMissingOrderTotals() {
+        orderRepository.calculateMissingOrderTotals();
+    }
+
+    @Scheduled(cron = "@hourly")
+    private void deleteExpiredPrintJobs() {
+        orderPrintService.deleteExpiredPrintJobs();
+    }
+
+}
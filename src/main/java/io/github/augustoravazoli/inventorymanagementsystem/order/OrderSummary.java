@@ -0,0 +1,48 @@
+package io.github.augustoravazoli.inventorymanagementsystem.order;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class OrderSummary {
+
+    private final Long id;
+    private final Integer number;
+    private final String customerName;
+    private final LocalDate date;
+    private final Integer quantity;
+    private final BigDecimal amount;
+
+    public OrderSummary(Long id, Integer number, String customerName, LocalDate date, Integer quantity, BigDecimal amount) {
+        this.id = id;
+        this.number = number;
+        this.customerName = customerName;
+        this.date = date;
+        this.quantity = quantity;
+        this.amount = amount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Integer getNumber() {
+        return number;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+}
@@ -0,0 +1,83 @@
+package io.github.augustoravazoli.inventorymanagementsystem.order;
+
+import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+public class PrintJob {
+
+    private final String id = UUID.randomUUID().toString();
+    private final Instant creationTime = Instant.now();
+    private final long orderId;
+    private final Long ownerId;
+    private volatile PrintJobStatus status = PrintJobStatus.PENDING;
+    private String filename;
+    private Path file;
+    private long size;
+
+    public PrintJob(long orderId, User owner) {
+        this.orderId = orderId;
+        this.ownerId = owner.getId();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public PrintJobStatus getStatus() {
+        return status;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    long orderId() {
+        return orderId;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    long size() {
+        return size;
+    }
+
+    boolean isOwnedBy(User owner) {
+        return Objects.equals(ownerId, owner.getId());
+    }
+
+    boolean isCreatedBefore(Instant instant) {
+        return creationTime.isBefore(instant);
+    }
+
+    void done(String filename, Path file, long size) {
+        this.filename = filename;
+        this.file = file;
+        this.size = size;
+        this.status = PrintJobStatus.DONE;
+    }
+
+    void fail() {
+        this.status = PrintJobStatus.FAILED;
+    }
+
+    void deleteFile() {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,9 @@
+package io.github.augustoravazoli.inventorymanagementsystem.order;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class PrintJobNotFinishedException extends RuntimeException {
+
+}
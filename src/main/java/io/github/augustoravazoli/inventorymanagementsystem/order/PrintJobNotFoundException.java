@@ -0,0 +1,9 @@
+package io.github.augustoravazoli.inventorymanagementsystem.order;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class PrintJobNotFoundException extends RuntimeException {
+
+}
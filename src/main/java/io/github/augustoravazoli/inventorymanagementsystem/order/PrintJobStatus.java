@@ -0,0 +1,5 @@
+package io.github.augustoravazoli.inventorymanagementsystem.order;
+
+public enum PrintJobStatus {
+    PENDING, DONE, FAILED
+}
@@ -2,23 +2,31 @@ package io.github.augustoravazoli.inventorymanagementsystem.product;
 
 import io.github.augustoravazoli.inventorymanagementsystem.category.CategoryService;
 import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+import io.github.augustoravazoli.inventorymanagementsystem.util.CsvConversionException;
+import io.github.augustoravazoli.inventorymanagementsystem.util.CsvConverter;
 import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.List;
+
 @Controller
 @RequestMapping("/products")
 public class ProductController {
 
     private final ProductService productService;
     private final CategoryService categoryService;
+    private final CsvConverter csvConverter;
 
-    public ProductController(ProductService productService, CategoryService categoryService) {
+    public ProductController(ProductService productService, CategoryService categoryService, CsvConverter csvConverter) {
         this.productService = productService;
         this.categoryService = categoryService;
+        this.csvConverter = csvConverter;
     }
 
     @GetMapping("/create")
@@ -43,12 +51,34 @@ public class ProductController {
         return "redirect:/products/list";
     }
 
+    @PostMapping("/create-all")
+    public String createAllProducts(
+            @AuthenticationPrincipal User user,
+            @RequestParam(name = "products") MultipartFile productsFile,
+            RedirectAttributes redirectAttributes
+    ) {
+        try (var chunks = csvConverter.convertInChunks(productsFile, ProductLineForm.class)) {
+            productService.createAllProducts(chunks.map(chunk -> chunk.stream().map(ProductLineForm::toEntity).toList()), user);
+        } catch (CsvConversionException | InvalidCategoryException e) {
+            redirectAttributes.addFlashAttribute("mappingError", true);
+        }
+        return "redirect:/products/list";
+    }
+
     @GetMapping("/list")
-    public String listProducts(@AuthenticationPrincipal User user, @RequestParam(name = "page", defaultValue = "1") int page, Model model) {
-        var productPage = productService.listProducts(page, user);
-        model.addAttribute("products", productPage.getContent());
-        model.addAttribute("currentPage", productPage.getNumber() + 1);
-        model.addAttribute("totalPages", productPage.getTotalPages());
+    public String listProducts(
+            @AuthenticationPrincipal User user,
+            @RequestParam(name = "page", defaultValue = "1") int page,
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "before", required = false) String before,
+            Model model
+    ) {
+        var productSlice = productService.listProducts(after, before, user);
+        model.addAttribute("products", productSlice.content());
+        model.addAttribute("currentPage", page);
+        model.addAttribute("previousCursor", productSlice.previousCursor());
+        model.addAttribute("nextCursor", productSlice.nextCursor());
+        model.addAttribute("totalPages", productService.countProductPages(user));
         return "product/product-table";
     }
 
@@ -59,6 +89,14 @@ public class ProductController {
         return "product/product-table";
     }
 
+    @GetMapping("/options")
+    public ResponseEntity<List<ProductOption>> findProductOptions(
+            @AuthenticationPrincipal User user,
+            @RequestParam(name = "name", defaultValue = "") String name
+    ) {
+        return ResponseEntity.ok(productService.findProductOptions(name, user));
+    }
+
     @GetMapping("/update/{id}")
     public String retrieveUpdateProductPage(@AuthenticationPrincipal User user, @PathVariable("id") long id, Model model) {
         var product = productService.findProduct(id, user);
@@ -0,0 +1,9 @@
+package io.github.augustoravazoli.inventorymanagementsystem.product;
+
+import java.util.Collection;
+
+public interface ProductImportRepository {
+
+    void insertAll(Collection<Product> products);
+
+}
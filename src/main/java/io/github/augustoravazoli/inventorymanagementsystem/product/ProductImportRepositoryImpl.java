@@ -0,0 +1,22 @@
+package io.github.augustoravazoli.inventorymanagementsystem.product;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.Collection;
+
+public class ProductImportRepositoryImpl implements ProductImportRepository {
+
+    private final EntityManager entityManager;
+
+    public ProductImportRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public void insertAll(Collection<Product> products) {
+        products.forEach(entityManager::persist);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+}
@@ -0,0 +1,77 @@
+package io.github.augustoravazoli.inventorymanagementsystem.product;
+
+import com.opencsv.bean.CsvBindByPosition;
+import io.github.augustoravazoli.inventorymanagementsystem.category.Category;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+
+public class ProductLineForm {
+
+    @CsvBindByPosition(position = 0, required = true)
+    @NotBlank
+    private String name;
+
+    @CsvBindByPosition(position = 1)
+    private String categoryName;
+
+    @CsvBindByPosition(position = 2, required = true)
+    @DecimalMin("0")
+    @NotNull
+    private Integer quantity;
+
+    @CsvBindByPosition(position = 3, required = true)
+    @DecimalMin("0.01")
+    @NotNull
+    private BigDecimal price;
+
+    public ProductLineForm() {}
+
+    public ProductLineForm(String name, String categoryName, Integer quantity, BigDecimal price) {
+        this.name = name;
+        this.categoryName = categoryName;
+        this.quantity = quantity;
+        this.price = price;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public Product toEntity() {
+        var category = StringUtils.hasText(categoryName) ? new Category(categoryName) : null;
+        return new Product(null, name, category, quantity, price);
+    }
+
+}
@@ -0,0 +1,29 @@
+package io.github.augustoravazoli.inventorymanagementsystem.product;
+
+import java.math.BigDecimal;
+
+public class ProductOption {
+
+    private final Long id;
+    private final String name;
+    private final BigDecimal price;
+
+    public ProductOption(Long id, String name, BigDecimal price) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+}
@@ -1,28 +1,105 @@
 package io.github.augustoravazoli.inventorymanagementsystem.product;
 
 import io.github.augustoravazoli.inventorymanagementsystem.user.User;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductStockRepository, ProductImportRepository {
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     boolean existsByIdAndOwner(long id, User owner);
 
     boolean existsByNameAndOwner(String name, User owner);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Product> findByIdAndOwner(long id, User owner);
 
     Optional<Product> findByNameAndOwner(String name, User owner);
 
-    Page<Product> findAllByOwner(User owner, Pageable pageable);
+    List<Product> findAllByIdInAndOwner(Collection<Long> ids, User owner);
 
-    List<Product> findAllByOwner(User owner, Sort sort);
+    List<Product> findAllByNameInAndOwner(Collection<String> names, User owner);
 
-    List<Product> findAllByNameContainingIgnoreCaseAndOwner(String name, User owner);
+    @Query("""
+            SELECT new io.github.augustoravazoli.inventorymanagementsystem.product.ProductSummary(
+                p.id, p.name, c.name, p.quantity, p.price
+            )
+            FROM Product p
+            LEFT JOIN p.category c
+            WHERE p.owner = :owner
+            ORDER BY p.name, p.id
+            """)
+    Slice<ProductSummary> findSummariesByOwner(User owner, Pageable pageable);
+
+    @Query("""
+            SELECT new io.github.augustoravazoli.inventorymanagementsystem.product.ProductSummary(
+                p.id, p.name, c.name, p.quantity, p.price
+            )
+            FROM Product p
+            LEFT JOIN p.category c
+            WHERE p.owner = :owner AND (p.name, p.id) > (:name, :id)
+            ORDER BY p.name, p.id
+            """)
+    Slice<ProductSummary> findSummariesByOwnerAfter(User owner, String name, long id, Pageable pageable);
+
+    @Query("""
+            SELECT new io.github.augustoravazoli.inventorymanagementsystem.product.ProductSummary(
+                p.id, p.name, c.name, p.quantity, p.price
+            )
+            FROM Product p
+            LEFT JOIN p.category c
+            WHERE p.owner = :owner AND (p.name, p.id) < (:name, :id)
+            ORDER BY p.name DESC, p.id DESC
+            """)
+    Slice<ProductSummary> findSummariesByOwnerBefore(User owner, String name, long id, Pageable pageable);
+
+    @Query("""
+            SELECT new io.github.augustoravazoli.inventorymanagementsystem.product.ProductSummary(
+                p.id, p.name, c.name, p.quantity, p.price
+            )
+            FROM Product p
+            LEFT JOIN p.category c
+            WHERE p.id IN :ids AND p.owner = :owner
+            """)
+    List<ProductSummary> findSummariesByIdInAndOwner(Collection<Long> ids, User owner);
+
+    @Query("""
+            SELECT new io.github.augustoravazoli.inventorymanagementsystem.product.ProductOption(p.id, p.name, p.price)
+            FROM Product p
+            WHERE p.owner = :owner AND LOWER(p.name) LIKE LOWER(:prefix) ESCAPE '\\'
+            ORDER BY LOWER(p.name)
+            """)
+    List<ProductOption> findOptionsByNameStartingWithAndOwner(String prefix, User owner, Pageable pageable);
+
+    @Query("""
+            SELECT new io.github.augustoravazoli.inventorymanagementsystem.product.ProductOption(p.id, p.name, p.price)
+            FROM Product p
+            WHERE p.id IN :ids AND p.owner = :owner
+            """)
+    List<ProductOption> findOptionsByIdInAndOwner(Collection<Long> ids, User owner);
+
+    @Query(value = "SELECT count_owner_rows('product', :ownerId, NULL, :threshold)", nativeQuery = true)
+    long countByOwner(long ownerId, int threshold);
+
+    @Query(
+            value = """
+                    SELECT id FROM product
+                    WHERE owner_id = :#{#owner.id}
+                    AND (LOWER(name) LIKE LOWER(:pattern) ESCAPE '\\' OR LOWER(:name) <% LOWER(name))
+                    ORDER BY word_similarity(LOWER(:name), LOWER(name)) DESC, name
+                    LIMIT :limit
+                    """,
+            nativeQuery = true
+    )
+    List<Long> searchIdsByNameAndOwner(String name, String pattern, User owner, int limit);
 
 }
@@ -1,17 +1,31 @@
 package io.github.augustoravazoli.inventorymanagementsystem.product;
 
+import io.github.augustoravazoli.inventorymanagementsystem.category.Category;
+import io.github.augustoravazoli.inventorymanagementsystem.category.CategoryOption;
 import io.github.augustoravazoli.inventorymanagementsystem.category.CategoryRepository;
 import io.github.augustoravazoli.inventorymanagementsystem.order.OrderRepository;
 import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Count;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Cursor;
+import io.github.augustoravazoli.inventorymanagementsystem.util.CursorSlice;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Search;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ProductService {
@@ -44,22 +58,71 @@ public class ProductService {
         logger.info("Product {} created for user {}", product.getName(), owner.getEmail());
     }
 
+    @Transactional
+    public void createAllProducts(Stream<List<Product>> chunks, User owner) {
+        logger.info("Creating multiples products, existing ones will have price and quantity updated");
+        var start = System.nanoTime();
+        var rows = new AtomicInteger();
+        var created = chunks
+                .peek(chunk -> rows.addAndGet(chunk.size()))
+                .mapToInt(chunk -> saveProducts(chunk, owner))
+                .sum();
+        var elapsed = Math.max(System.nanoTime() - start, 1);
+        logger.info("Imported {} products for user {}, {} of them new, in {} ms ({} rows/sec)",
+                rows.get(), owner.getEmail(), created, elapsed / 1_000_000, rows.get() * 1_000_000_000L / elapsed);
+    }
+
     @Transactional(readOnly = true)
-    public Page<Product> listProducts(int page, User owner) {
+    public CursorSlice<ProductSummary> listProducts(String after, String before, User owner) {
         logger.info("Listing products paginated for user {}", owner.getEmail());
-        return productRepository.findAllByOwner(owner, PageRequest.of(page - 1, 8, Sort.by("name")));
+        var pageable = PageRequest.ofSize(8);
+        if (before != null) {
+            var cursor = Cursor.decode(before);
+            return CursorSlice.before(productRepository.findSummariesByOwnerBefore(owner, cursor.key(), cursor.id(), pageable), this::cursorOf);
+        }
+        if (after != null) {
+            var cursor = Cursor.decode(after);
+            return CursorSlice.after(productRepository.findSummariesByOwnerAfter(owner, cursor.key(), cursor.id(), pageable), true, this::cursorOf);
+        }
+        return CursorSlice.after(productRepository.findSummariesByOwner(owner, pageable), false, this::cursorOf);
     }
 
     @Transactional(readOnly = true)
-    public List<Product> listProducts(User owner) {
-        logger.info("Listing products for user {}", owner.getEmail());
-        return productRepository.findAllByOwner(owner, Sort.by("name"));
+    public Count countProductPages(User owner) {
+        logger.info("Counting product pages for user {}", owner.getEmail());
+        return Count.of(productRepository.countByOwner(owner.getId(), Count.EXACT_THRESHOLD)).toPages(8);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductOption> findProductOptions(String name, User owner) {
+        if (Search.isTooShortForTypeahead(name)) {
+            return List.of();
+        }
+        logger.info("Finding product options starting with name {} for user {}", name, owner.getEmail());
+        return productRepository.findOptionsByNameStartingWithAndOwner(
+                Search.startingWith(name), owner, PageRequest.ofSize(Search.TYPEAHEAD_LIMIT)
+        );
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductOption> findProductOptions(Collection<Long> ids, User owner) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        logger.info("Finding product options with ids {} for user {}", ids, owner.getEmail());
+        return productRepository.findOptionsByIdInAndOwner(ids, owner);
     }
 
     @Transactional(readOnly = true)
-    public List<Product> findProducts(String name, User owner) {
+    public List<ProductSummary> findProducts(String name, User owner) {
         logger.info("Finding products containing name {} for user {}", name, owner.getEmail());
-        return productRepository.findAllByNameContainingIgnoreCaseAndOwner(name, owner);
+        var ids = productRepository.searchIdsByNameAndOwner(name, Search.containing(name), owner, Search.RESULT_LIMIT);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return productRepository.findSummariesByIdInAndOwner(ids, owner).stream()
+                .sorted(Comparator.comparingInt(product -> ids.indexOf(product.getId())))
+                .toList();
     }
 
     @Transactional(readOnly = true)
@@ -83,11 +146,16 @@ public class ProductService {
             logger.info("New product category with id {} of user {} not found, throwing exception", updatedProduct.getCategory().getId(), owner.getEmail());
             throw new InvalidCategoryException();
         }
+        var priceChanged = product.getPrice().compareTo(updatedProduct.getPrice()) != 0;
         product.setName(updatedProduct.getName());
         product.setCategory(updatedProduct.getCategory());
         product.setQuantity(updatedProduct.getQuantity());
         product.setPrice(updatedProduct.getPrice());
         productRepository.save(product);
+        if (priceChanged) {
+            logger.info("Product with id {} of user {} has a new price, updating unpaid orders amounts", product.getId(), owner.getEmail());
+            orderRepository.updateUnpaidOrderAmountsByProductIdIn(List.of(id));
+        }
         logger.info("Product with id {} of user {} updated, new name is {}", product.getId(), owner.getEmail(), updatedProduct.getName());
     }
 
@@ -105,4 +173,57 @@ public class ProductService {
         logger.info("Product with id {} of user {} deleted", id, owner.getEmail());
     }
 
+    private int saveProducts(List<Product> chunk, User owner) {
+        var products = chunk.stream().collect(Collectors.toMap(
+                Product::getName,
+                Function.identity(),
+                (product, duplicate) -> duplicate,
+                LinkedHashMap::new
+        ));
+        var categoryIds = findCategoryIds(products.values(), owner);
+        var repricedIds = new ArrayList<Long>();
+        for (var existingProduct : productRepository.findAllByNameInAndOwner(products.keySet(), owner)) {
+            var product = products.remove(existingProduct.getName());
+            if (existingProduct.getPrice().compareTo(product.getPrice()) != 0) {
+                repricedIds.add(existingProduct.getId());
+            }
+            existingProduct.setQuantity(product.getQuantity());
+            existingProduct.setPrice(product.getPrice());
+        }
+        products.values().forEach(product -> {
+            if (product.getCategory() != null) {
+                product.setCategory(new Category(categoryIds.get(product.getCategory().getName())));
+            }
+            product.setOwner(owner);
+        });
+        productRepository.insertAll(List.copyOf(products.values()));
+        if (!repricedIds.isEmpty()) {
+            logger.info("Products with ids {} of user {} have a new price, updating unpaid orders amounts", repricedIds, owner.getEmail());
+            orderRepository.updateUnpaidOrderAmountsByProductIdIn(repricedIds);
+        }
+        return products.size();
+    }
+
+    private Map<String, Long> findCategoryIds(Collection<Product> products, User owner) {
+        var names = products.stream()
+                .map(Product::getCategory)
+                .filter(Objects::nonNull)
+                .map(Category::getName)
+                .collect(Collectors.toSet());
+        if (names.isEmpty()) {
+            return Map.of();
+        }
+        var categoryIds = categoryRepository.findOptionsByNameInAndOwner(names, owner).stream()
+                .collect(Collectors.toMap(CategoryOption::getName, CategoryOption::getId));
+        if (categoryIds.size() < names.size()) {
+            logger.info("Products contains nonexistent categories, throwing exception");
+            throw new InvalidCategoryException();
+        }
+        return categoryIds;
+    }
+
+    private Cursor cursorOf(ProductSummary product) {
+        return new Cursor(product.getName(), product.getId());
+    }
+
 }
@@ -0,0 +1,16 @@
+package io.github.augustoravazoli.inventorymanagementsystem.product;
+
+import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface ProductStockRepository {
+
+    Map<Long, Integer> lockQuantities(Collection<Long> ids, User owner);
+
+    int decreaseQuantities(Map<Long, Integer> quantities, User owner);
+
+    int increaseQuantities(Map<Long, Integer> quantities, User owner);
+
+}
@@ -0,0 +1,98 @@
+package io.github.augustoravazoli.inventorymanagementsystem.product;
+
+import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class ProductStockRepositoryImpl implements ProductStockRepository {
+
+    private static final String STOCK_QUERY_SPACE = "product_stock";
+    private static final String DECREASE_SQL =
+            "UPDATE product SET quantity = quantity - ? WHERE id = ? AND owner_id = ? AND quantity >= ?";
+    private static final String INCREASE_SQL =
+            "UPDATE product SET quantity = quantity + ? WHERE id = ? AND owner_id = ?";
+
+    private final EntityManager entityManager;
+
+    public ProductStockRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Map<Long, Integer> lockQuantities(Collection<Long> ids, User owner) {
+        var quantities = new HashMap<Long, Integer>();
+        if (ids.isEmpty()) {
+            return quantities;
+        }
+        List<?> rows = entityManager.createNativeQuery("SELECT id, quantity FROM product WHERE id IN (?1) AND owner_id = ?2 ORDER BY id FOR UPDATE")
+                .setParameter(1, ids)
+                .setParameter(2, owner.getId())
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(STOCK_QUERY_SPACE)
+                .getResultList();
+        rows.stream()
+                .map(Object[].class::cast)
+                .forEach(row -> quantities.put(((Number) row[0]).longValue(), ((Number) row[1]).intValue()));
+        return quantities;
+    }
+
+    @Override
+    public int decreaseQuantities(Map<Long, Integer> quantities, User owner) {
+        return updateQuantities(quantities, owner, DECREASE_SQL, true);
+    }
+
+    @Override
+    public int increaseQuantities(Map<Long, Integer> quantities, User owner) {
+        return updateQuantities(quantities, owner, INCREASE_SQL, false);
+    }
+
+    private int updateQuantities(Map<Long, Integer> quantities, User owner, String sql, boolean checkStock) {
+        if (quantities.isEmpty()) {
+            return 0;
+        }
+        // Rows are updated in id order so concurrent writers take their row locks in the same order
+        var sortedQuantities = new TreeMap<>(quantities);
+        var updated = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (var statement = connection.prepareStatement(sql)) {
+                for (var entry : sortedQuantities.entrySet()) {
+                    statement.setInt(1, entry.getValue());
+                    statement.setLong(2, entry.getKey());
+                    statement.setLong(3, owner.getId());
+                    if (checkStock) {
+                        statement.setInt(4, entry.getValue());
+                    }
+                    statement.addBatch();
+                }
+                return (int) Arrays.stream(statement.executeBatch()).filter(count -> count > 0).count();
+            }
+        });
+        evictProducts(List.copyOf(sortedQuantities.keySet()));
+        return updated;
+    }
+
+    private void evictProducts(List<Long> ids) {
+        var cache = entityManager.getEntityManagerFactory().getCache();
+        ids.forEach(id -> cache.evict(Product.class, id));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCompletion(int status) {
+                    ids.forEach(id -> cache.evict(Product.class, id));
+                }
+
+            });
+        }
+    }
+
+}
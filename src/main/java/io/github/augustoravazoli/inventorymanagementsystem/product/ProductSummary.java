@@ -0,0 +1,41 @@
+package io.github.augustoravazoli.inventorymanagementsystem.product;
+
+import java.math.BigDecimal;
+
+public class ProductSummary {
+
+    private final Long id;
+    private final String name;
+    private final String categoryName;
+    private final Integer quantity;
+    private final BigDecimal price;
+
+    public ProductSummary(Long id, String name, String categoryName, Integer quantity, BigDecimal price) {
+        this.id = id;
+        this.name = name;
+        this.categoryName = categoryName;
+        this.quantity = quantity;
+        this.price = price;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+}
@@ -0,0 +1,28 @@
+package io.github.augustoravazoli.inventorymanagementsystem.search;
+
+import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@Controller
+@RequestMapping("/search")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    @GetMapping
+    public String search(@AuthenticationPrincipal User user, @RequestParam(name = "query", defaultValue = "") String query, Model model) {
+        var results = searchService.search(query, user);
+        model.addAttribute("results", results);
+        return "search/search-results";
+    }
+
+}
@@ -0,0 +1,58 @@
+package io.github.augustoravazoli.inventorymanagementsystem.search;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.util.Objects;
+
+@Entity
+@Immutable
+@Table(name = "search_index")
+public class SearchEntry {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type")
+    private SearchEntryType type;
+
+    @Id
+    @Column(name = "entity_id")
+    private Long id;
+
+    @Column(nullable = false)
+    private String label;
+
+    public SearchEntry() {}
+
+    public SearchEntry(SearchEntryType type, Long id, String label) {
+        this.type = type;
+        this.id = id;
+        this.label = label;
+    }
+
+    public SearchEntryType getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (other == null || this.getClass() != other.getClass()) return false;
+        var that = (SearchEntry) other;
+        return this.type == that.type && Objects.equals(this.id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, id);
+    }
+
+}
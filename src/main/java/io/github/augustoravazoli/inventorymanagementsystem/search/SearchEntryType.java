@@ -0,0 +1,20 @@
+package io.github.augustoravazoli.inventorymanagementsystem.search;
+
+public enum SearchEntryType {
+
+    PRODUCT("products"),
+    CATEGORY("categories"),
+    CUSTOMER("customers"),
+    ORDER("orders");
+
+    private final String path;
+
+    SearchEntryType(String path) {
+        this.path = path;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+}
@@ -0,0 +1,22 @@
+package io.github.augustoravazoli.inventorymanagementsystem.search;
+
+import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+
+import java.util.List;
+
+public interface SearchRepository extends Repository<SearchEntry, SearchEntry> {
+
+    @Query(
+            value = """
+                    SELECT * FROM search_index
+                    WHERE owner_id = :#{#owner.id} AND document @@ to_tsquery('simple', :query)
+                    ORDER BY ts_rank(document, to_tsquery('simple', :query)) DESC, label
+                    LIMIT :limit
+                    """,
+            nativeQuery = true
+    )
+    List<SearchEntry> searchAllByQueryAndOwner(String query, User owner, int limit);
+
+}
@@ -0,0 +1,33 @@
+package io.github.augustoravazoli.inventorymanagementsystem.search;
+
+import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Search;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class SearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchService.class);
+
+    private final SearchRepository searchRepository;
+
+    public SearchService(SearchRepository searchRepository) {
+        this.searchRepository = searchRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public List<SearchEntry> search(String query, User owner) {
+        var prefixQuery = Search.prefixQuery(query);
+        if (prefixQuery.isEmpty()) {
+            return List.of();
+        }
+        logger.info("Searching {} for user {}", query, owner.getEmail());
+        return searchRepository.searchAllByQueryAndOwner(prefixQuery, owner, Search.RESULT_LIMIT);
+    }
+
+}
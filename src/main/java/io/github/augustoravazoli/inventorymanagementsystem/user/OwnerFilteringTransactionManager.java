@@ -0,0 +1,33 @@
+package io.github.augustoravazoli.inventorymanagementsystem.user;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Enables the {@code owner} Hibernate filter on every transaction started on behalf of
+ * an authenticated user, so queries on owned entities only see that user's rows.
+ * The filter does not apply to lookups by id, native queries or second-level cache hits,
+ * which is why repositories still take the owner explicitly.
+ */
+public class OwnerFilteringTransactionManager extends JpaTransactionManager {
+
+    public OwnerFilteringTransactionManager(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    @Override
+    protected EntityManager createEntityManagerForTransaction() {
+        var entityManager = super.createEntityManagerForTransaction();
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User owner) {
+            entityManager.unwrap(Session.class)
+                    .enableFilter("owner")
+                    .setParameter("ownerId", owner.getId());
+        }
+        return entityManager;
+    }
+
+}
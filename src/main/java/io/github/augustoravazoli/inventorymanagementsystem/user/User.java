@@ -3,6 +3,8 @@ package io.github.augustoravazoli.inventorymanagementsystem.user;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.FilterDef;
+import org.hibernate.annotations.ParamDef;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
@@ -12,10 +14,12 @@ import static java.util.Collections.emptySet;
 
 @Entity
 @Table(name = "\"user\"")
+@FilterDef(name = "owner", defaultCondition = "owner_id = :ownerId", parameters = @ParamDef(name = "ownerId", type = Long.class))
 public class User implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
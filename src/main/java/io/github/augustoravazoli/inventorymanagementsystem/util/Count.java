@@ -0,0 +1,15 @@
+package io.github.augustoravazoli.inventorymanagementsystem.util;
+
+public record Count(long value, boolean exact) {
+
+    public static final int EXACT_THRESHOLD = 1000;
+
+    public static Count of(long rows) {
+        return new Count(rows, rows <= EXACT_THRESHOLD);
+    }
+
+    public Count toPages(int pageSize) {
+        return new Count((value + pageSize - 1) / pageSize, exact);
+    }
+
+}
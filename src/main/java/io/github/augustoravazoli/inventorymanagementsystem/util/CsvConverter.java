@@ -13,23 +13,33 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Component
 public class CsvConverter {
 
+    public static final int CHUNK_SIZE = 1000;
+
     private final Validator validator;
 
     public CsvConverter(Validator validator) {
         this.validator = validator;
     }
 
-    public <T> List<T> convert(MultipartFile file, Class<T> clazz) {
-        try (var reader = getReader(file)) {
-            var beans = getBean(reader, clazz).parse();
-            beans.forEach(this::validate);
-            return beans;
+    public <T> Stream<List<T>> convertInChunks(MultipartFile file, Class<T> clazz) {
+        try {
+            var reader = getReader(file);
+            var chunks = chunksOf(getBean(reader, clazz).iterator());
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(chunks, Spliterator.ORDERED), false)
+                    .onClose(() -> close(reader));
         } catch (IOException | RuntimeException e) {
             throw new CsvConversionException();
         }
@@ -59,6 +69,39 @@ public class CsvConverter {
                 .build();
     }
 
+    private <T> Iterator<List<T>> chunksOf(Iterator<T> beans) {
+        return new Iterator<>() {
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    return beans.hasNext();
+                } catch (RuntimeException e) {
+                    throw new CsvConversionException();
+                }
+            }
+
+            @Override
+            public List<T> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                var chunk = new ArrayList<T>(CHUNK_SIZE);
+                while (chunk.size() < CHUNK_SIZE && hasNext()) {
+                    try {
+                        var bean = beans.next();
+                        validate(bean);
+                        chunk.add(bean);
+                    } catch (RuntimeException e) {
+                        throw new CsvConversionException();
+                    }
+                }
+                return chunk;
+            }
+
+        };
+    }
+
     private void validate(Object object) {
         var violations = validator.validate(object);
         if (!violations.isEmpty()) {
@@ -66,4 +109,12 @@ public class CsvConverter {
         }
     }
 
+    private void close(CSVReader reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new CsvConversionException();
+        }
+    }
+
 }
@@ -0,0 +1,23 @@
+package io.github.augustoravazoli.inventorymanagementsystem.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record Cursor(String key, long id) {
+
+    public static Cursor decode(String value) {
+        try {
+            var decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            var separator = decoded.indexOf(':');
+            return new Cursor(decoded.substring(separator + 1), Long.parseLong(decoded.substring(0, separator)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    public String encode() {
+        var value = id + ":" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
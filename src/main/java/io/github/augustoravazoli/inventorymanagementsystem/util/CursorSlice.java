@@ -0,0 +1,33 @@
+package io.github.augustoravazoli.inventorymanagementsystem.util;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+public record CursorSlice<T>(List<T> content, String previousCursor, String nextCursor) {
+
+    public static <T> CursorSlice<T> after(Slice<T> slice, boolean hasPrevious, Function<T, Cursor> cursor) {
+        var content = slice.getContent();
+        if (content.isEmpty()) {
+            return new CursorSlice<>(content, null, null);
+        }
+        var previousCursor = hasPrevious ? cursor.apply(content.get(0)).encode() : null;
+        var nextCursor = slice.hasNext() ? cursor.apply(content.get(content.size() - 1)).encode() : null;
+        return new CursorSlice<>(content, previousCursor, nextCursor);
+    }
+
+    public static <T> CursorSlice<T> before(Slice<T> slice, Function<T, Cursor> cursor) {
+        var content = new ArrayList<>(slice.getContent());
+        if (content.isEmpty()) {
+            return new CursorSlice<>(content, null, null);
+        }
+        Collections.reverse(content);
+        var previousCursor = slice.hasNext() ? cursor.apply(content.get(0)).encode() : null;
+        var nextCursor = cursor.apply(content.get(content.size() - 1)).encode();
+        return new CursorSlice<>(content, previousCursor, nextCursor);
+    }
+
+}
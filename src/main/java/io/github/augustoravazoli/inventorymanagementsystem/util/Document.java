@@ -1,7 +1,21 @@
 package io.github.augustoravazoli.inventorymanagementsystem.util;
 
-import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
-public record Document(String filename, ByteArrayOutputStream content, long size) {
+public record Document(String filename, InputStream content, long size) implements Closeable {
+
+    public void writeTo(OutputStream output) throws IOException {
+        try (content) {
+            content.transferTo(output);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        content.close();
+    }
 
 }
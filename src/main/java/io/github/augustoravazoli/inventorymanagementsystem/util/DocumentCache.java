@@ -0,0 +1,141 @@
+package io.github.augustoravazoli.inventorymanagementsystem.util;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+public class DocumentCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentCache.class);
+
+    private static final long MAX_SIZE = 64 * 1024 * 1024;
+
+    private final Path directory;
+    private final long maxSize;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    public DocumentCache() {
+        this(createDirectory(), MAX_SIZE);
+    }
+
+    DocumentCache(Path directory, long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+    }
+
+    public synchronized Optional<Document> find(String key, String version) {
+        var entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (!entry.version().equals(version)) {
+            logger.info("Cached document {} is outdated", key);
+            remove(key);
+            return Optional.empty();
+        }
+        try {
+            var document = new Document(entry.filename(), Files.newInputStream(entry.file()), entry.size());
+            logger.info("Found cached document {}", key);
+            return Optional.of(document);
+        } catch (IOException e) {
+            logger.info("Cached document {} is not readable", key, e);
+            remove(key);
+            return Optional.empty();
+        }
+    }
+
+    public Document put(String key, String version, String filename, DocumentWriter writer) {
+        try {
+            var file = Files.createTempFile(directory, "document-", ".pdf");
+            try (var output = new BufferedOutputStream(Files.newOutputStream(file))) {
+                writer.write(output);
+            } catch (IOException | RuntimeException e) {
+                delete(file);
+                throw e;
+            }
+            var size = Files.size(file);
+            if (size > maxSize) {
+                logger.info("Document {} is too large to be cached", key);
+                return new Document(filename, Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE), size);
+            }
+            synchronized (this) {
+                remove(key);
+                var document = new Document(filename, Files.newInputStream(file), size);
+                entries.put(key, new Entry(version, filename, file, size));
+                this.size += size;
+                evictLeastRecentlyUsed();
+                logger.info("Cached document {}", key);
+                return document;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public synchronized void evict(String key) {
+        if (remove(key)) {
+            logger.info("Evicted cached document {}", key);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void clear() {
+        entries.values().forEach(entry -> delete(entry.file()));
+        entries.clear();
+        size = 0;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        var iterator = entries.values().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            var entry = iterator.next();
+            iterator.remove();
+            size -= entry.size();
+            delete(entry.file());
+        }
+    }
+
+    private boolean remove(String key) {
+        var entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        size -= entry.size();
+        delete(entry.file());
+        return true;
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.info("Cached document file {} could not be deleted", file, e);
+        }
+    }
+
+    private static Path createDirectory() {
+        try {
+            return Files.createTempDirectory("document-cache-");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Entry(String version, String filename, Path file, long size) {
+
+    }
+
+}
@@ -1,5 +1,8 @@
 package io.github.augustoravazoli.inventorymanagementsystem.util;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -7,9 +10,12 @@ import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 import org.xhtmlrenderer.pdf.ITextRenderer;
 
-import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class DocumentGenerator {
@@ -17,20 +23,56 @@ public class DocumentGenerator {
     private static final Logger logger = LoggerFactory.getLogger(DocumentGenerator.class);
 
     private final TemplateEngine templateEngine;
+    private final BlockingDeque<ITextRenderer> renderers;
+    private final Timer rendererWaitTimer;
+    private final Counter rendererReplacements;
 
-    public DocumentGenerator(TemplateEngine templateEngine) {
+    public DocumentGenerator(TemplateEngine templateEngine, MeterRegistry meterRegistry) {
         this.templateEngine = templateEngine;
+        var poolSize = Runtime.getRuntime().availableProcessors();
+        this.renderers = new LinkedBlockingDeque<>(poolSize);
+        for (var i = 0; i < poolSize; i++) {
+            renderers.add(new ITextRenderer());
+        }
+        this.rendererWaitTimer = Timer.builder("document.renderer.wait")
+                .description("Time spent waiting for a pooled PDF renderer")
+                .register(meterRegistry);
+        this.rendererReplacements = Counter.builder("document.renderer.replaced")
+                .description("Pooled PDF renderers replaced after a failed render")
+                .register(meterRegistry);
+        meterRegistry.gauge("document.renderer.available", renderers, BlockingDeque::size);
     }
 
-    public Document generate(String filename, String template, Map<String, Object> variables, Locale locale) {
+    public void generate(String template, Map<String, Object> variables, Locale locale, OutputStream output) {
         var html = templateEngine.process(template, contextFromMap(variables, locale));
-        var content = new ByteArrayOutputStream();
-        var textRenderer = new ITextRenderer();
-        textRenderer.setDocumentFromString(html);
-        textRenderer.layout();
-        textRenderer.createPDF(content);
+        var baseUrl = DocumentGenerator.class.getResource("/templates/" + template + ".html");
+        var textRenderer = acquireRenderer();
+        var reusable = false;
+        try {
+            textRenderer.setDocumentFromString(html, baseUrl != null ? baseUrl.toExternalForm() : null);
+            textRenderer.layout();
+            textRenderer.createPDF(output);
+            reusable = true;
+        } finally {
+            if (!reusable) {
+                rendererReplacements.increment();
+                logger.info("Rendering of template {} failed, replacing pooled PDF renderer", template);
+            }
+            renderers.push(reusable ? textRenderer : new ITextRenderer());
+        }
         logger.info("Generating document");
-        return new Document(filename, content, content.size());
+    }
+
+    private ITextRenderer acquireRenderer() {
+        var start = System.nanoTime();
+        try {
+            return renderers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } finally {
+            rendererWaitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
     private Context contextFromMap(Map<String, Object> variables, Locale locale) {
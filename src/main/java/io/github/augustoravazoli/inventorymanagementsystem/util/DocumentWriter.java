@@ -0,0 +1,11 @@
+package io.github.augustoravazoli.inventorymanagementsystem.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+@FunctionalInterface
+public interface DocumentWriter {
+
+    void write(OutputStream output) throws IOException;
+
+}
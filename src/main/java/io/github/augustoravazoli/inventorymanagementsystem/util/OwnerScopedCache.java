@@ -0,0 +1,79 @@
+package io.github.augustoravazoli.inventorymanagementsystem.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+public class OwnerScopedCache<V> {
+
+    private static final Logger logger = LoggerFactory.getLogger(OwnerScopedCache.class);
+
+    private final String name;
+    private final int maxOwners;
+    private final long expirationNanos;
+    private final Map<Long, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    public OwnerScopedCache(String name, int maxOwners, Duration expiration) {
+        this.name = name;
+        this.maxOwners = maxOwners;
+        this.expirationNanos = expiration.toNanos();
+    }
+
+    public V get(Long ownerId, Supplier<V> loader) {
+        long version;
+        synchronized (this) {
+            var entry = entries.get(ownerId);
+            if (entry != null && entry.value() != null && System.nanoTime() - entry.expiresAt() < 0) {
+                return entry.value();
+            }
+            version = entry != null ? entry.version() : 0;
+        }
+        var value = loader.get();
+        synchronized (this) {
+            var entry = entries.get(ownerId);
+            if ((entry != null ? entry.version() : 0) == version) {
+                entries.put(ownerId, new Entry<>(version, value, System.nanoTime() + expirationNanos));
+                evictLeastRecentlyUsed();
+            }
+        }
+        return value;
+    }
+
+    public void invalidate(Long ownerId) {
+        evict(ownerId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(ownerId);
+                }
+            });
+        }
+    }
+
+    private synchronized void evict(Long ownerId) {
+        var entry = entries.get(ownerId);
+        entries.put(ownerId, new Entry<>(entry != null ? entry.version() + 1 : 1, null, 0));
+        evictLeastRecentlyUsed();
+        logger.info("Evicted cached {} of owner {}", name, ownerId);
+    }
+
+    private void evictLeastRecentlyUsed() {
+        var iterator = entries.values().iterator();
+        while (entries.size() > maxOwners && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private record Entry<V>(long version, V value, long expiresAt) {
+
+    }
+
+}
@@ -0,0 +1,39 @@
+package io.github.augustoravazoli.inventorymanagementsystem.util;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+public final class Search {
+
+    public static final int RESULT_LIMIT = 50;
+    public static final int TYPEAHEAD_LIMIT = 10;
+    public static final int TYPEAHEAD_MIN_LENGTH = 1;
+
+    private Search() {}
+
+    public static String containing(String term) {
+        return "%" + escape(term) + "%";
+    }
+
+    public static String startingWith(String term) {
+        return escape(term) + "%";
+    }
+
+    public static boolean isTooShortForTypeahead(String term) {
+        return term.strip().length() < TYPEAHEAD_MIN_LENGTH;
+    }
+
+    public static String prefixQuery(String term) {
+        return Arrays.stream(term.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+
+    private static String escape(String term) {
+        return term.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+}
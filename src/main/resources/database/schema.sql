@@ -1,4 +1,5 @@
 DROP VIEW IF EXISTS dashboard;
+DROP TABLE IF EXISTS search_index;
 DROP TABLE IF EXISTS order_sequence;
 DROP TABLE IF EXISTS order_item;
 DROP TABLE IF EXISTS "order";
@@ -8,9 +9,19 @@ DROP TABLE IF EXISTS customer;
 DROP TABLE IF EXISTS password_reset_token;
 DROP TABLE IF EXISTS verification_token;
 DROP TABLE IF EXISTS "user";
+DROP SEQUENCE IF EXISTS order_seq;
+DROP SEQUENCE IF EXISTS product_seq;
+DROP SEQUENCE IF EXISTS category_seq;
+DROP SEQUENCE IF EXISTS customer_seq;
+DROP SEQUENCE IF EXISTS user_seq;
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+CREATE SEQUENCE user_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE "user" (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     email VARCHAR(255) NOT NULL UNIQUE,
     password CHAR(60) NOT NULL,
@@ -52,15 +63,22 @@ BEGIN
 END;
 ';
 
+CREATE SEQUENCE category_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE category (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     owner_id BIGINT NOT NULL REFERENCES "user"(id),
     UNIQUE(name, owner_id)
 );
 
+CREATE INDEX category_owner_name_idx ON category (owner_id, name, id);
+CREATE INDEX category_name_trgm_idx ON category USING GIN (owner_id, LOWER(name) gin_trgm_ops);
+
+CREATE SEQUENCE product_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE product (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     category_id BIGINT REFERENCES category(id) ON DELETE SET NULL,
     quantity INTEGER NOT NULL CHECK (quantity >= 0),
@@ -69,8 +87,15 @@ CREATE TABLE product (
     UNIQUE(name, owner_id)
 );
 
+CREATE INDEX product_owner_name_idx ON product (owner_id, name, id);
+CREATE INDEX product_name_trgm_idx ON product USING GIN (owner_id, LOWER(name) gin_trgm_ops);
+CREATE INDEX product_owner_lower_name_idx ON product (owner_id, LOWER(name) text_pattern_ops);
+CREATE INDEX product_owner_lower_name_order_idx ON product (owner_id, LOWER(name));
+
+CREATE SEQUENCE customer_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE customer (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     address VARCHAR(255) NOT NULL,
     phone VARCHAR(255) NOT NULL,
@@ -78,16 +103,27 @@ CREATE TABLE customer (
     UNIQUE(name, owner_id)
 );
 
+CREATE INDEX customer_owner_name_idx ON customer (owner_id, name, id);
+CREATE INDEX customer_name_trgm_idx ON customer USING GIN (owner_id, LOWER(name) gin_trgm_ops);
+CREATE INDEX customer_owner_lower_name_idx ON customer (owner_id, LOWER(name) text_pattern_ops);
+CREATE INDEX customer_owner_lower_name_order_idx ON customer (owner_id, LOWER(name));
+
+CREATE SEQUENCE order_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE "order" (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     number INTEGER NOT NULL,
     status VARCHAR(255) NOT NULL CHECK (status IN ('UNPAID', 'PAID')),
     "date" date NOT NULL DEFAULT CURRENT_DATE,
     customer_id BIGINT NOT NULL REFERENCES customer(id),
     owner_id BIGINT NOT NULL REFERENCES "user"(id),
+    total_quantity INTEGER,
+    total_amount DECIMAL(12, 2),
     UNIQUE(number, owner_id)
 );
 
+CREATE INDEX order_owner_status_date_idx ON "order" (owner_id, status, "date", id);
+
 CREATE TABLE order_item (
     quantity INTEGER NOT NULL CHECK (quantity > 0),
     product_id BIGINT NOT NULL REFERENCES product(id) ON DELETE RESTRICT,
@@ -96,22 +132,37 @@ CREATE TABLE order_item (
     PRIMARY KEY (product_id, order_id)
 );
 
+CREATE OR REPLACE PROCEDURE calculate_missing_order_totals()
+    LANGUAGE PLPGSQL
+AS
+'
+BEGIN
+    UPDATE "order" o
+    SET total_quantity = t.quantity, total_amount = t.amount
+    FROM (
+        SELECT oi.order_id, SUM(oi.quantity) AS quantity, SUM(p.price * oi.quantity) AS amount
+        FROM order_item oi
+        INNER JOIN product p
+        ON oi.product_id = p.id
+        WHERE oi.order_id IN (SELECT id FROM "order" WHERE total_quantity IS NULL OR total_amount IS NULL)
+        GROUP BY oi.order_id
+    ) t
+    WHERE o.id = t.order_id;
+END;
+';
+
 CREATE OR REPLACE FUNCTION calculate_total_sales(p_owner_id BIGINT)
     RETURNS DECIMAL(12, 2)
-    IMMUTABLE
+    STABLE
     LANGUAGE PLPGSQL
 AS
 '
 DECLARE
     v_total DECIMAL(12, 2);
 BEGIN
-   SELECT SUM(p.price * oi.quantity)
+   SELECT SUM(o.total_amount)
    INTO v_total
-   FROM order_item oi
-   INNER JOIN product p
-   ON oi.product_id = p.id
-   INNER JOIN "order" o
-   ON oi.order_id = o.id
+   FROM "order" o
    WHERE o.status = ''PAID'' AND o.owner_id = p_owner_id;
 
    RETURN COALESCE(v_total, 0.00);
@@ -153,6 +204,24 @@ BEGIN
 END;
 ';
 
+CREATE OR REPLACE FUNCTION allocate_order_numbers(p_owner_id BIGINT, p_block_size INTEGER)
+    RETURNS INTEGER
+    LANGUAGE PLPGSQL
+    VOLATILE
+AS
+'
+DECLARE
+    v_counter INTEGER;
+BEGIN
+    INSERT INTO order_sequence(owner_id, counter)
+    VALUES (p_owner_id, p_block_size)
+    ON CONFLICT(owner_id)
+    DO UPDATE SET counter = order_sequence.counter + p_block_size
+    RETURNING counter INTO v_counter;
+    RETURN v_counter;
+END;
+';
+
 CREATE OR REPLACE FUNCTION generate_order_number()
     RETURNS TRIGGER
     LANGUAGE PLPGSQL
@@ -167,4 +236,96 @@ END;
 CREATE OR REPLACE TRIGGER base_table_insert_trigger
     BEFORE INSERT ON "order"
     FOR EACH ROW
+    WHEN (NEW.number IS NULL)
     EXECUTE PROCEDURE generate_order_number();
+
+CREATE OR REPLACE FUNCTION count_owner_rows(p_table TEXT, p_owner_id BIGINT, p_status TEXT, p_threshold INTEGER)
+    RETURNS BIGINT
+    LANGUAGE PLPGSQL
+    STABLE
+AS
+'
+DECLARE
+    v_filter TEXT;
+    v_count BIGINT;
+    v_plan JSON;
+BEGIN
+    v_filter := format(''owner_id = %s'', p_owner_id);
+    IF p_status IS NOT NULL THEN
+        v_filter := v_filter || format('' AND status = %L'', p_status);
+    END IF;
+    EXECUTE format(''SELECT COUNT(*) FROM (SELECT 1 FROM %I WHERE %s LIMIT %s) t'', p_table, v_filter, p_threshold + 1)
+    INTO v_count;
+    IF v_count <= p_threshold THEN
+        RETURN v_count;
+    END IF;
+    EXECUTE format(''EXPLAIN (FORMAT JSON) SELECT 1 FROM %I WHERE %s'', p_table, v_filter)
+    INTO v_plan;
+    RETURN GREATEST((v_plan->0->''Plan''->>''Plan Rows'')::BIGINT, v_count);
+END;
+';
+
+CREATE TABLE search_index (
+    entity_type VARCHAR(255) NOT NULL CHECK (entity_type IN ('PRODUCT', 'CATEGORY', 'CUSTOMER', 'ORDER')),
+    entity_id BIGINT NOT NULL,
+    owner_id BIGINT NOT NULL REFERENCES "user"(id) ON DELETE CASCADE,
+    label VARCHAR(255) NOT NULL,
+    document TSVECTOR NOT NULL,
+    PRIMARY KEY (entity_type, entity_id)
+);
+
+CREATE INDEX search_index_owner_document_idx ON search_index USING GIN (owner_id, document);
+
+CREATE OR REPLACE FUNCTION update_search_index()
+    RETURNS TRIGGER
+    LANGUAGE PLPGSQL
+AS
+'
+DECLARE
+    v_type TEXT := TG_ARGV[0];
+    v_label TEXT;
+    v_document TSVECTOR;
+BEGIN
+    IF TG_OP = ''DELETE'' THEN
+        DELETE FROM search_index WHERE entity_type = v_type AND entity_id = OLD.id;
+        RETURN OLD;
+    END IF;
+    IF v_type = ''ORDER'' THEN
+        v_label := NEW.number::TEXT;
+        v_document := setweight(to_tsvector(''simple'', NEW.number::TEXT), ''A'');
+    ELSIF v_type = ''CUSTOMER'' THEN
+        v_label := NEW.name;
+        v_document := setweight(to_tsvector(''simple'', NEW.name), ''A'')
+            || setweight(to_tsvector(''simple'', NEW.phone), ''B'')
+            || setweight(to_tsvector(''simple'', NEW.address), ''C'');
+    ELSE
+        v_label := NEW.name;
+        v_document := setweight(to_tsvector(''simple'', NEW.name), ''A'');
+    END IF;
+    INSERT INTO search_index(entity_type, entity_id, owner_id, label, document)
+    VALUES (v_type, NEW.id, NEW.owner_id, v_label, v_document)
+    ON CONFLICT(entity_type, entity_id)
+    DO UPDATE SET label = EXCLUDED.label, document = EXCLUDED.document;
+    RETURN NEW;
+END;
+';
+
+CREATE OR REPLACE TRIGGER product_search_index_trigger
+    AFTER INSERT OR UPDATE OF name OR DELETE ON product
+    FOR EACH ROW
+    EXECUTE PROCEDURE update_search_index('PRODUCT');
+
+CREATE OR REPLACE TRIGGER category_search_index_trigger
+    AFTER INSERT OR UPDATE OF name OR DELETE ON category
+    FOR EACH ROW
+    EXECUTE PROCEDURE update_search_index('CATEGORY');
+
+CREATE OR REPLACE TRIGGER customer_search_index_trigger
+    AFTER INSERT OR UPDATE OF name, phone, address OR DELETE ON customer
+    FOR EACH ROW
+    EXECUTE PROCEDURE update_search_index('CUSTOMER');
+
+CREATE OR REPLACE TRIGGER order_search_index_trigger
+    AFTER INSERT OR UPDATE OF number OR DELETE ON "order"
+    FOR EACH ROW
+    EXECUTE PROCEDURE update_search_index('ORDER');
@@ -1,10 +1,13 @@
-function order(items) {
+function order(items, customers, products, customersUrl, productsUrl) {
 
   function createItem(item = { productId: "", quantity: "" }) {
+    const product = products.find(product => product.id == item.productId);
     return {
       productId: item.productId,
-      price: "",
+      name: product ? product.name : "",
+      price: product ? product.price : "",
       quantity: item.quantity,
+      options: [],
       get amount() {
         const amount = this.price * this.quantity;
         return amount || "";
@@ -12,15 +15,58 @@ function order(items) {
     };
   }
 
+  const pendingSearches = new Map();
+
+  async function findOptions(key, url, name) {
+    pendingSearches.get(key)?.abort();
+    if (name.trim() === "") {
+      pendingSearches.delete(key);
+      return [];
+    }
+    const controller = new AbortController();
+    pendingSearches.set(key, controller);
+    try {
+      const response = await fetch(`${url}?name=${encodeURIComponent(name)}`, { signal: controller.signal });
+      return response.ok ? await response.json() : [];
+    } catch (error) {
+      if (error.name === "AbortError") return null;
+      throw error;
+    }
+  }
+
   return {
+    customer: {
+      id: customers.length > 0 ? customers[0].id : "",
+      name: customers.length > 0 ? customers[0].name : "",
+      options: []
+    },
     items: items ? items.map(item => createItem(item)) : [createItem()],
+    async searchCustomers() {
+      this.customer.id = "";
+      const options = await findOptions("customer", customersUrl, this.customer.name);
+      if (options) this.customer.options = options;
+    },
+    selectCustomer(option) {
+      this.customer.id = option.id;
+      this.customer.name = option.name;
+      this.customer.options = [];
+    },
     addItem() {
       this.items.push(createItem());
     },
-    editItem(index, option) {
+    async searchProducts(index) {
+      const item = this.items[index];
+      item.productId = "";
+      item.price = "";
+      const options = await findOptions(item, productsUrl, item.name);
+      if (options) item.options = options;
+    },
+    selectProduct(index, option) {
       const item = this.items[index];
-      item.productId = option.value;
-      item.price = option.dataset.price;
+      item.productId = option.id;
+      item.name = option.name;
+      item.price = option.price;
+      item.options = [];
       if (item.quantity === "") item.quantity = 1;
     },
     removeItem(index) {
@@ -0,0 +1,42 @@
+function printJob() {
+
+  const POLL_INTERVAL = 500;
+  const POLL_TIMEOUT = 60000;
+
+  function wait(milliseconds) {
+    return new Promise(resolve => setTimeout(resolve, milliseconds));
+  }
+
+  async function readJob(response) {
+    if (!response.ok) return null;
+    try {
+      return await response.json();
+    } catch {
+      return null;
+    }
+  }
+
+  return {
+    currentForm: null,
+    printing: false,
+    async print(url) {
+      if (this.printing) return;
+      this.printing = true;
+      try {
+        const csrf = document.querySelector("input[name='_csrf']").value;
+        let job = await readJob(await fetch(`${url}/jobs`, { method: "POST", body: new URLSearchParams({ _csrf: csrf }) }));
+        const deadline = Date.now() + POLL_TIMEOUT;
+        while (job?.status === "PENDING" && Date.now() < deadline) {
+          await wait(POLL_INTERVAL);
+          job = await readJob(await fetch(`/orders/print/jobs/${job.id}`));
+        }
+        // A failed, expired or unknown job is printed synchronously instead
+        window.location.href = job?.status === "DONE" ? `/orders/print/jobs/${job.id}/download` : url;
+      } catch {
+        window.location.href = url;
+      } finally {
+        this.printing = false;
+      }
+    }
+  };
+}
@@ -1,18 +1,31 @@
 package io.github.augustoravazoli.inventorymanagementsystem;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Import;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
 import org.springframework.test.context.ActiveProfiles;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 @SpringBootTest
 @Import(TestApplication.class)
 @ActiveProfiles("test")
 class ApplicationTests {
 
+	@Autowired
+	private ApplicationContext context;
+
 	@Test
 	void contextLoads() {
 
 	}
 
+	@Test
+	void doNotKeepEntityManagerOpenInView() {
+		assertThat(context.getBeansOfType(OpenEntityManagerInViewInterceptor.class)).isEmpty();
+	}
+
 }
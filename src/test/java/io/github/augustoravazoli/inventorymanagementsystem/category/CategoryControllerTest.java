@@ -2,15 +2,14 @@ package io.github.augustoravazoli.inventorymanagementsystem.category;
 
 import io.github.augustoravazoli.inventorymanagementsystem.MockUserDetailsService;
 import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Count;
+import io.github.augustoravazoli.inventorymanagementsystem.util.CursorSlice;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 
 import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.web.servlet.MockMvc;
@@ -108,10 +107,13 @@ class CategoryControllerTest {
         void listCategories() throws Exception {
             // given
             var categories = List.of(new Category("A"), new Category("B"), new Category("C"));
-            var pageable = PageRequest.of(0, 8, Sort.by("name"));
-            when(categoryService.listCategories(anyInt(), any(User.class))).thenReturn(new PageImpl<>(categories, pageable, 3));
+            when(categoryService.listCategories(anyString(), isNull(), any(User.class))).thenReturn(new CursorSlice<>(categories, "previous", "next"));
+            when(categoryService.countCategoryPages(any(User.class))).thenReturn(new Count(5, true));
             // when
-            var result = client.perform(get("/categories/list"));
+            var result = client.perform(get("/categories/list")
+                    .param("page", "2")
+                    .param("after", "cursor")
+            );
             // then
             result.andExpectAll(
                     status().isOk(),
@@ -120,11 +122,14 @@ class CategoryControllerTest {
                             category("B"),
                             category("C")
                     )),
-                    model().attribute("currentPage", 1),
-                    model().attribute("totalPages", 1),
+                    model().attribute("currentPage", 2),
+                    model().attribute("previousCursor", "previous"),
+                    model().attribute("nextCursor", "next"),
+                    model().attribute("totalPages", new Count(5, true)),
                     view().name("category/category-table")
             );
-            verify(categoryService, times(1)).listCategories(anyInt(), any(User.class));
+            verify(categoryService, times(1)).listCategories(eq("cursor"), isNull(), any(User.class));
+            verify(categoryService, times(1)).countCategoryPages(any(User.class));
         }
 
     }
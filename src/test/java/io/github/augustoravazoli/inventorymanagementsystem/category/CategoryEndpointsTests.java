@@ -69,8 +69,8 @@ class CategoryEndpointsTests {
                     redirectedUrl("/categories/list")
             );
             var categoryOptional = categoryRepository.findByNameAndOwner("A", user);
-            assertThat(categoryOptional).get().extracting("name", "owner.email")
-                    .containsExactly("A", "user@email.com");
+            assertThat(categoryOptional).get().extracting("name", "owner.id")
+                    .containsExactly("A", user.getId());
         }
 
     }
@@ -140,8 +140,8 @@ class CategoryEndpointsTests {
                     redirectedUrl("/categories/list")
             );
             var categoryOptional = categoryRepository.findById(id);
-            assertThat(categoryOptional).get().extracting("name", "owner.email")
-                    .containsExactly("B", "user@email.com");
+            assertThat(categoryOptional).get().extracting("name", "owner.id")
+                    .containsExactly("B", user.getId());
         }
 
     }
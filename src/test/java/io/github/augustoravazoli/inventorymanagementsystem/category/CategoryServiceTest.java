@@ -1,14 +1,17 @@
 package io.github.augustoravazoli.inventorymanagementsystem.category;
 
 import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Count;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Cursor;
+import io.github.augustoravazoli.inventorymanagementsystem.util.InvalidCursorException;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 
 import java.util.List;
@@ -63,29 +66,89 @@ class CategoryServiceTest {
     class ListCategoriesTests {
 
         private final List<Category> categories = List.of(
-                new Category("A"),
-                new Category("B"),
-                new Category("C")
+                new Category(1L, "A"),
+                new Category(2L, "B"),
+                new Category(3L, "C")
         );
 
+        @Test
+        void countCategoryPages() {
+            // given
+            var owner = new User(1L, "user", "user@email.com", "password");
+            when(categoryRepository.countByOwner(1L, 1000)).thenReturn(17L);
+            // when
+            var pages = categoryService.countCategoryPages(owner);
+            // then
+            assertThat(pages).isEqualTo(new Count(3, true));
+        }
+
+        @Test
+        void countCategoryPagesApproximately() {
+            // given
+            var owner = new User(1L, "user", "user@email.com", "password");
+            when(categoryRepository.countByOwner(1L, 1000)).thenReturn(5000L);
+            // when
+            var pages = categoryService.countCategoryPages(owner);
+            // then
+            assertThat(pages).isEqualTo(new Count(625, false));
+        }
+
         @Test
         void listCategoriesPaginated() {
             // given
-            var pageable = PageRequest.of(0, 8, Sort.by("name"));
-            var expectedCategoryPage = new PageImpl<>(categories, pageable, 3);
-            when(categoryRepository.findAllByOwner(user, pageable)).thenReturn(expectedCategoryPage);
+            var pageable = PageRequest.of(0, 8, Sort.by("name", "id"));
+            when(categoryRepository.findAllByOwner(user, pageable)).thenReturn(new SliceImpl<>(categories, pageable, true));
+            // when
+            var actualCategorySlice = categoryService.listCategories(null, null, user);
+            // then
+            assertThat(actualCategorySlice.content()).extracting("name").isSorted();
+            assertThat(actualCategorySlice.content()).usingRecursiveComparison().isEqualTo(categories);
+            assertThat(actualCategorySlice.previousCursor()).isNull();
+            assertThat(actualCategorySlice.nextCursor()).isEqualTo(new Cursor("C", 3L).encode());
+        }
+
+        @Test
+        void listCategoriesAfterCursor() {
+            // given
+            var pageable = PageRequest.ofSize(8);
+            when(categoryRepository.findAllByOwnerAfter(user, "0", 10L, pageable)).thenReturn(new SliceImpl<>(categories, pageable, false));
             // when
-            var actualCategoryPage = categoryService.listCategories(1, user);
+            var actualCategorySlice = categoryService.listCategories(new Cursor("0", 10L).encode(), null, user);
             // then
-            assertThat(actualCategoryPage.getContent()).extracting("name").isSorted();
-            assertThat(actualCategoryPage).usingRecursiveComparison().isEqualTo(expectedCategoryPage);
+            assertThat(actualCategorySlice.content()).usingRecursiveComparison().isEqualTo(categories);
+            assertThat(actualCategorySlice.previousCursor()).isEqualTo(new Cursor("A", 1L).encode());
+            assertThat(actualCategorySlice.nextCursor()).isNull();
+        }
+
+        @Test
+        void listCategoriesBeforeCursor() {
+            // given
+            var pageable = PageRequest.ofSize(8);
+            when(categoryRepository.findAllByOwnerBefore(user, "D", 4L, pageable)).thenReturn(new SliceImpl<>(categories.reversed(), pageable, false));
+            // when
+            var actualCategorySlice = categoryService.listCategories(null, new Cursor("D", 4L).encode(), user);
+            // then
+            assertThat(actualCategorySlice.content()).usingRecursiveComparison().isEqualTo(categories);
+            assertThat(actualCategorySlice.previousCursor()).isNull();
+            assertThat(actualCategorySlice.nextCursor()).isEqualTo(new Cursor("C", 3L).encode());
+        }
+
+        @Test
+        void doNotListCategoriesWithInvalidCursor() {
+            // when
+            var exception = assertThatThrownBy(() -> categoryService.listCategories("invalid", null, user));
+            // then
+            exception.isInstanceOf(InvalidCursorException.class);
         }
 
         @Test
         void listCategories() {
             // given
-            var expectedCategories = categories;
-            when(categoryRepository.findAllByOwner(user, Sort.by("name"))).thenReturn(expectedCategories);
+            var expectedCategories = List.of(
+                    new CategoryOption(1L, "A"),
+                    new CategoryOption(2L, "B")
+            );
+            when(categoryRepository.findOptionsByOwner(user)).thenReturn(expectedCategories);
             // when
             var actualCategories = categoryService.listCategories(user);
             // then
@@ -93,6 +156,23 @@ class CategoryServiceTest {
             assertThat(actualCategories).usingRecursiveComparison().isEqualTo(expectedCategories);
         }
 
+        @Test
+        void listCategoriesFromCacheUntilChanged() {
+            // given
+            when(categoryRepository.findOptionsByOwner(user)).thenReturn(List.of(
+                    new CategoryOption(1L, "A"),
+                    new CategoryOption(2L, "B")
+            ));
+            when(categoryRepository.existsByNameAndOwner("C", user)).thenReturn(false);
+            // when
+            categoryService.listCategories(user);
+            categoryService.listCategories(user);
+            categoryService.createCategory(new Category("C"), user);
+            categoryService.listCategories(user);
+            // then
+            verify(categoryRepository, times(2)).findOptionsByOwner(user);
+        }
+
     }
 
     @Nested
@@ -102,7 +182,7 @@ class CategoryServiceTest {
         void findCategories() {
             // given
             var expectedCategories = List.of(new Category("A"), new Category("Aa"));
-            when(categoryRepository.findAllByNameContainingIgnoreCaseAndOwner("A", user)).thenReturn(expectedCategories);
+            when(categoryRepository.searchAllByNameAndOwner("A", "%A%", user, 50)).thenReturn(expectedCategories);
             // when
             var actualCategories = categoryService.findCategories("A", user);
             // then
@@ -195,6 +275,7 @@ class CategoryServiceTest {
             // when
             categoryService.deleteCategory(1L, user);
             // then
+            verify(categoryRepository, times(1)).detachProducts(1L);
             verify(categoryRepository, times(1)).deleteById(1L);
         }
 
@@ -0,0 +1,71 @@
+package io.github.augustoravazoli.inventorymanagementsystem.customer;
+
+import io.github.augustoravazoli.inventorymanagementsystem.TestApplication;
+import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+import io.github.augustoravazoli.inventorymanagementsystem.user.UserRepository;
+import io.github.augustoravazoli.inventorymanagementsystem.util.CsvConverter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("benchmark")
+@SpringBootTest(properties = "logging.level.org.hibernate=WARN")
+@Import(TestApplication.class)
+@ActiveProfiles("test")
+class CustomerBenchmarks {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerBenchmarks.class);
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        user = userRepository.save(new User("user", "user@email.com", "$2a$10$gYCEDfFbidA3IInCfzcXdugclrYR/6FbQuogN7Ixc3ohWi90MEXiO"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        customerRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createAllCustomers() {
+        // given
+        var rows = 200_000;
+        var chunks = IntStream.range(0, rows / CsvConverter.CHUNK_SIZE)
+                .mapToObj(chunk -> IntStream.range(chunk * CsvConverter.CHUNK_SIZE, (chunk + 1) * CsvConverter.CHUNK_SIZE)
+                        .mapToObj(i -> new Customer("customer" + i, "address" + i, "phone" + i))
+                        .toList()
+                );
+        // when
+        var start = System.nanoTime();
+        customerService.createAllCustomers(chunks, user);
+        var elapsed = System.nanoTime() - start;
+        // then
+        logger.info("Imported {} customers in {} ms ({} rows/sec)",
+                rows, elapsed / 1_000_000, Math.round(rows / (elapsed / 1e9)));
+        assertThat(customerRepository.count()).isEqualTo(rows);
+    }
+
+}
@@ -2,6 +2,8 @@ package io.github.augustoravazoli.inventorymanagementsystem.customer;
 
 import io.github.augustoravazoli.inventorymanagementsystem.MockUserDetailsService;
 import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Count;
+import io.github.augustoravazoli.inventorymanagementsystem.util.CursorSlice;
 import io.github.augustoravazoli.inventorymanagementsystem.util.CsvConversionException;
 import io.github.augustoravazoli.inventorymanagementsystem.util.CsvConverter;
 import org.junit.jupiter.api.Nested;
@@ -10,15 +12,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import static io.github.augustoravazoli.inventorymanagementsystem.customer.CustomerMatchers.customer;
 import static org.hamcrest.Matchers.*;
@@ -118,6 +118,7 @@ class CustomerControllerTest {
         @Test
         void createAllCustomers() throws Exception {
             // given
+            when(csvMapper.convertInChunks(any(MultipartFile.class), any())).thenReturn(Stream.empty());
             var file = new MockMultipartFile("customers", "customers.csv", "text/csv", "".getBytes());
             // when
             var result = client.perform(multipart("/customers/create-all")
@@ -129,13 +130,13 @@ class CustomerControllerTest {
                     status().isFound(),
                     redirectedUrl("/customers/list")
             );
-            verify(csvMapper, times(1)).convert(any(MultipartFile.class), any());
+            verify(csvMapper, times(1)).convertInChunks(any(MultipartFile.class), any());
         }
 
         @Test
         void doNotCreateAllCustomersWithInvalidCustomersFile() throws Exception {
             // given
-            doThrow(CsvConversionException.class).when(csvMapper).convert(any(MultipartFile.class), any());
+            doThrow(CsvConversionException.class).when(csvMapper).convertInChunks(any(MultipartFile.class), any());
             var file = new MockMultipartFile("customers", "customers.csv", "text/csv", "".getBytes());
             // when
             var result = client.perform(multipart("/customers/create-all")
@@ -148,7 +149,7 @@ class CustomerControllerTest {
                     flash().attribute("mappingError", true),
                     redirectedUrl("/customers/list")
             );
-            verify(csvMapper, times(1)).convert(any(MultipartFile.class), any());
+            verify(csvMapper, times(1)).convertInChunks(any(MultipartFile.class), any());
         }
 
     }
@@ -164,10 +165,13 @@ class CustomerControllerTest {
                     new Customer("B", "B", "B"),
                     new Customer("C", "C", "C")
             );
-            var pageable = PageRequest.of(0, 8, Sort.by("name"));
-            when(customerService.listCustomers(anyInt(), any(User.class))).thenReturn(new PageImpl<>(customers, pageable, 3));
+            when(customerService.listCustomers(anyString(), isNull(), any(User.class))).thenReturn(new CursorSlice<>(customers, "previous", "next"));
+            when(customerService.countCustomerPages(any(User.class))).thenReturn(new Count(5, true));
             // when
-            var result = client.perform(get("/customers/list"));
+            var result = client.perform(get("/customers/list")
+                    .param("page", "2")
+                    .param("after", "cursor")
+            );
             // then
             result.andExpectAll(
                     status().isOk(),
@@ -176,11 +180,14 @@ class CustomerControllerTest {
                             customer("B", "B", "B"),
                             customer("C", "C", "C")
                     )),
-                    model().attribute("currentPage", 1),
-                    model().attribute("totalPages", 1),
+                    model().attribute("currentPage", 2),
+                    model().attribute("previousCursor", "previous"),
+                    model().attribute("nextCursor", "next"),
+                    model().attribute("totalPages", new Count(5, true)),
                     view().name("customer/customer-table")
             );
-            verify(customerService, times(1)).listCustomers(anyInt(), any(User.class));
+            verify(customerService, times(1)).listCustomers(eq("cursor"), isNull(), any(User.class));
+            verify(customerService, times(1)).countCustomerPages(any(User.class));
         }
 
     }
@@ -214,6 +221,34 @@ class CustomerControllerTest {
 
     }
 
+    @Nested
+    class FindCustomerOptionsTests {
+
+        @Test
+        void findCustomerOptions() throws Exception {
+            // given
+            var options = List.of(
+                    new CustomerOption(1L, "A"),
+                    new CustomerOption(2L, "Ab")
+            );
+            when(customerService.findCustomerOptions(anyString(), any(User.class))).thenReturn(options);
+            // when
+            var result = client.perform(get("/customers/options")
+                    .param("name", "a")
+            );
+            // then
+            result.andExpectAll(
+                    status().isOk(),
+                    jsonPath("$", hasSize(2)),
+                    jsonPath("$[0].id").value(1),
+                    jsonPath("$[0].name").value("A"),
+                    jsonPath("$[1].id").value(2)
+            );
+            verify(customerService, times(1)).findCustomerOptions(eq("a"), any(User.class));
+        }
+
+    }
+
     @Nested
     class UpdateCustomerTests {
 
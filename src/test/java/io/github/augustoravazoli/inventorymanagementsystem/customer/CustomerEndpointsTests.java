@@ -11,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.TestExecutionEvent;
 import org.springframework.security.test.context.support.WithUserDetails;
@@ -75,8 +76,8 @@ class CustomerEndpointsTests {
             );
             var customerOptional = customerRepository.findByNameAndOwner("A", user);
             assertThat(customerOptional).get()
-                    .extracting("name", "address", "phone", "owner.email")
-                    .containsExactly("A", "A", "A", "user@email.com");
+                    .extracting("name", "address", "phone", "owner.id")
+                    .containsExactly("A", "A", "A", user.getId());
         }
 
     }
@@ -100,13 +101,55 @@ class CustomerEndpointsTests {
                     redirectedUrl("/customers/list")
             );
             var customers = customerRepository.findAll();
-            assertThat(customers).extracting("name", "address", "phone", "owner.email").containsExactly(
-                    tuple("A", "A", "A", "user@email.com"),
-                    tuple("B", "B", "B", "user@email.com"),
-                    tuple("C", "C", "C", "user@email.com")
+            assertThat(customers).extracting("name", "address", "phone", "owner.id").containsExactly(
+                    tuple("A", "A", "A", user.getId()),
+                    tuple("B", "B", "B", user.getId()),
+                    tuple("C", "C", "C", user.getId())
             );
         }
 
+        @Test
+        void createAllCustomersIgnoringDuplicates() throws Exception {
+            // given
+            customerRepository.save(new Customer("A", "A", "A", user));
+            var csv = "name;address;phone;\nA;B;B\nB;B;B\nB;C;C";
+            var file = new MockMultipartFile("customers", "customers.csv", "text/csv", csv.getBytes());
+            // when
+            var result = client.perform(multipart("/customers/create-all")
+                    .file(file)
+                    .with(csrf())
+            );
+            // then
+            result.andExpectAll(
+                    status().isFound(),
+                    redirectedUrl("/customers/list")
+            );
+            var customers = customerRepository.findAll(Sort.by("name"));
+            assertThat(customers).extracting("name", "address", "phone").containsExactly(
+                    tuple("A", "A", "A"),
+                    tuple("B", "B", "B")
+            );
+        }
+
+        @Test
+        void doNotCreateAllCustomersWithInvalidRow() throws Exception {
+            // given
+            var csv = "name;address;phone;\nA;A;A\nB;;B";
+            var file = new MockMultipartFile("customers", "customers.csv", "text/csv", csv.getBytes());
+            // when
+            var result = client.perform(multipart("/customers/create-all")
+                    .file(file)
+                    .with(csrf())
+            );
+            // then
+            result.andExpectAll(
+                    status().isFound(),
+                    flash().attribute("mappingError", true),
+                    redirectedUrl("/customers/list")
+            );
+            assertThat(customerRepository.count()).isZero();
+        }
+
     }
 
     @Nested
@@ -177,8 +220,8 @@ class CustomerEndpointsTests {
             );
             var customerOptional = customerRepository.findById(id);
             assertThat(customerOptional).get()
-                    .extracting("name", "address", "phone", "owner.email")
-                    .containsExactly("B", "B", "B", "user@email.com");
+                    .extracting("name", "address", "phone", "owner.id")
+                    .containsExactly("B", "B", "B", user.getId());
         }
 
     }
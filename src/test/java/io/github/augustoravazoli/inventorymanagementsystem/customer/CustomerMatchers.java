@@ -23,6 +23,13 @@ public class CustomerMatchers {
         );
     }
 
+    public static Matcher<CustomerOption> customerOption(Long id, String name) {
+        return allOf(
+                hasProperty("id", is(id)),
+                hasProperty("name", is(name))
+        );
+    }
+
     public static Matcher<Customer> customer() {
         return allOf(
                 hasProperty("name", nullValue()),
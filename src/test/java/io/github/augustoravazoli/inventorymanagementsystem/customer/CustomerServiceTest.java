@@ -2,18 +2,24 @@ package io.github.augustoravazoli.inventorymanagementsystem.customer;
 
 import io.github.augustoravazoli.inventorymanagementsystem.order.OrderRepository;
 import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Count;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Cursor;
+import io.github.augustoravazoli.inventorymanagementsystem.util.InvalidCursorException;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -74,21 +80,33 @@ class CustomerServiceTest {
         @Test
         void createAllCustomers() {
             // when
-            customerService.createAllCustomers(customers, user);
+            customerService.createAllCustomers(Stream.of(customers.subList(0, 2), customers.subList(2, 3)), user);
             // then
             assertThat(customers).extracting("owner").containsExactly(user, user, user);
-            verify(customerRepository, times(1)).saveAll(customers);
+            verify(customerRepository, times(1)).insertAll(customers.subList(0, 2));
+            verify(customerRepository, times(1)).insertAll(customers.subList(2, 3));
         }
 
         @Test
         void createAllCustomersIgnoringDuplicates() {
             // given
-            when(customerRepository.existsByNameAndOwner("A", user)).thenReturn(true);
+            when(customerRepository.findNamesByNameInAndOwner(Set.of("A", "B", "C"), user)).thenReturn(List.of("A"));
             // when
-            customerService.createAllCustomers(customers, user);
+            customerService.createAllCustomers(Stream.of(customers), user);
             // then
             assertThat(customers).extracting("owner").containsExactly(null, user, user);
-            verify(customerRepository, times(1)).saveAll(customers.subList(1, 3));
+            verify(customerRepository, times(1)).insertAll(customers.subList(1, 3));
+        }
+
+        @Test
+        void createAllCustomersIgnoringDuplicatesInFile() {
+            // given
+            var duplicate = new Customer("A", "B", "B");
+            // when
+            customerService.createAllCustomers(Stream.of(List.of(customers.getFirst(), duplicate)), user);
+            // then
+            assertThat(duplicate.getOwner()).isNull();
+            verify(customerRepository, times(1)).insertAll(List.of(customers.getFirst()));
         }
 
     }
@@ -97,34 +115,130 @@ class CustomerServiceTest {
     class ListCustomersTests {
 
         private final List<Customer> customers = List.of(
-                new Customer("A", "A", "A"),
-                new Customer("B", "B", "B"),
-                new Customer("C", "C", "C")
+                new Customer(1L, "A", "A", "A"),
+                new Customer(2L, "B", "B", "B"),
+                new Customer(3L, "C", "C", "C")
         );
 
+        @Test
+        void countCustomerPages() {
+            // given
+            var owner = new User(1L, "user", "user@email.com", "password");
+            when(customerRepository.countByOwner(1L, 1000)).thenReturn(17L);
+            // when
+            var pages = customerService.countCustomerPages(owner);
+            // then
+            assertThat(pages).isEqualTo(new Count(3, true));
+        }
+
+        @Test
+        void countCustomerPagesApproximately() {
+            // given
+            var owner = new User(1L, "user", "user@email.com", "password");
+            when(customerRepository.countByOwner(1L, 1000)).thenReturn(5000L);
+            // when
+            var pages = customerService.countCustomerPages(owner);
+            // then
+            assertThat(pages).isEqualTo(new Count(625, false));
+        }
+
         @Test
         void listCustomersPaginated() {
             // given
-            var pageable = PageRequest.of(0, 8, Sort.by("name"));
-            var expectedCustomerPage = new PageImpl<>(customers, pageable, 3);
-            when(customerRepository.findAllByOwner(user, pageable)).thenReturn(expectedCustomerPage);
+            var pageable = PageRequest.of(0, 8, Sort.by("name", "id"));
+            when(customerRepository.findAllByOwner(user, pageable)).thenReturn(new SliceImpl<>(customers, pageable, true));
             // when
-            var actualCustomerPage = customerService.listCustomers(1, user);
+            var actualCustomerSlice = customerService.listCustomers(null, null, user);
             // then
-            assertThat(actualCustomerPage.getContent()).extracting("name").isSorted();
-            assertThat(actualCustomerPage).usingRecursiveComparison().isEqualTo(expectedCustomerPage);
+            assertThat(actualCustomerSlice.content()).extracting("name").isSorted();
+            assertThat(actualCustomerSlice.content()).usingRecursiveComparison().isEqualTo(customers);
+            assertThat(actualCustomerSlice.previousCursor()).isNull();
+            assertThat(actualCustomerSlice.nextCursor()).isEqualTo(new Cursor("C", 3L).encode());
         }
 
         @Test
-        void listCustomers() {
+        void listCustomersAfterCursor() {
             // given
-            var expectedCustomers = customers;
-            when(customerRepository.findAllByOwner(user, Sort.by("name"))).thenReturn(expectedCustomers);
+            var pageable = PageRequest.ofSize(8);
+            when(customerRepository.findAllByOwnerAfter(user, "0", 10L, pageable)).thenReturn(new SliceImpl<>(customers, pageable, false));
             // when
-            var actualCustomers = customerService.listCustomers(user);
+            var actualCustomerSlice = customerService.listCustomers(new Cursor("0", 10L).encode(), null, user);
             // then
-            assertThat(actualCustomers).extracting("name").isSorted();
-            assertThat(actualCustomers).usingRecursiveComparison().isEqualTo(expectedCustomers);
+            assertThat(actualCustomerSlice.content()).usingRecursiveComparison().isEqualTo(customers);
+            assertThat(actualCustomerSlice.previousCursor()).isEqualTo(new Cursor("A", 1L).encode());
+            assertThat(actualCustomerSlice.nextCursor()).isNull();
+        }
+
+        @Test
+        void listCustomersBeforeCursor() {
+            // given
+            var pageable = PageRequest.ofSize(8);
+            when(customerRepository.findAllByOwnerBefore(user, "D", 4L, pageable)).thenReturn(new SliceImpl<>(customers.reversed(), pageable, false));
+            // when
+            var actualCustomerSlice = customerService.listCustomers(null, new Cursor("D", 4L).encode(), user);
+            // then
+            assertThat(actualCustomerSlice.content()).usingRecursiveComparison().isEqualTo(customers);
+            assertThat(actualCustomerSlice.previousCursor()).isNull();
+            assertThat(actualCustomerSlice.nextCursor()).isEqualTo(new Cursor("C", 3L).encode());
+        }
+
+        @Test
+        void doNotListCustomersWithInvalidCursor() {
+            // when
+            var exception = assertThatThrownBy(() -> customerService.listCustomers("invalid", null, user));
+            // then
+            exception.isInstanceOf(InvalidCursorException.class);
+        }
+
+    }
+
+    @Nested
+    class FindCustomerOptionsTests {
+
+        @Test
+        void findCustomerOptionsByName() {
+            // given
+            var expectedOptions = List.of(
+                    new CustomerOption(1L, "A"),
+                    new CustomerOption(2L, "Ab")
+            );
+            when(customerRepository.findOptionsByNameStartingWithAndOwner("a%", user, PageRequest.ofSize(10))).thenReturn(expectedOptions);
+            // when
+            var actualOptions = customerService.findCustomerOptions("a", user);
+            // then
+            assertThat(actualOptions).usingRecursiveComparison().isEqualTo(expectedOptions);
+        }
+
+        @Test
+        void findNoCustomerOptionsWithBlankName() {
+            // when
+            var actualOptions = customerService.findCustomerOptions(" ", user);
+            // then
+            assertThat(actualOptions).isEmpty();
+            verify(customerRepository, never()).findOptionsByNameStartingWithAndOwner(anyString(), any(User.class), any(Pageable.class));
+        }
+
+        @Test
+        void findCustomerOptionsByIds() {
+            // given
+            var expectedOptions = List.of(
+                    new CustomerOption(1L, "A"),
+                    new CustomerOption(2L, "Ab")
+            );
+            when(customerRepository.findOptionsByIdInAndOwner(List.of(1L, 2L), user)).thenReturn(expectedOptions);
+            // when
+            var actualOptions = customerService.findCustomerOptions(List.of(1L, 2L), user);
+            // then
+            assertThat(actualOptions).usingRecursiveComparison().isEqualTo(expectedOptions);
+        }
+
+        @Test
+        void findNoCustomerOptionsWithoutIds() {
+            // when
+            var actualOptions = customerService.findCustomerOptions(List.of(), user);
+            // then
+            assertThat(actualOptions).isEmpty();
+            verify(customerRepository, never()).findOptionsByIdInAndOwner(anyCollection(), any(User.class));
         }
 
     }
@@ -139,7 +253,7 @@ class CustomerServiceTest {
                     new Customer("A", "A", "A"),
                     new Customer("Aa", "Aa", "Aa")
             );
-            when(customerRepository.findAllByNameContainingIgnoreCaseAndOwner("A", user)).thenReturn(expectedCustomers);
+            when(customerRepository.searchAllByNameAndOwner("A", "%A%", user, 50)).thenReturn(expectedCustomers);
             // when
             var actualCustomers = customerService.findCustomers("A", user);
             // then
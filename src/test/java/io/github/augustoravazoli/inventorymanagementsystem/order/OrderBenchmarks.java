@@ -0,0 +1,207 @@
+package io.github.augustoravazoli.inventorymanagementsystem.order;
+
+import io.github.augustoravazoli.inventorymanagementsystem.TestApplication;
+import io.github.augustoravazoli.inventorymanagementsystem.customer.Customer;
+import io.github.augustoravazoli.inventorymanagementsystem.customer.CustomerRepository;
+import io.github.augustoravazoli.inventorymanagementsystem.product.Product;
+import io.github.augustoravazoli.inventorymanagementsystem.product.ProductRepository;
+import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+import io.github.augustoravazoli.inventorymanagementsystem.user.UserRepository;
+import io.github.augustoravazoli.inventorymanagementsystem.util.CsvConverter;
+import io.github.augustoravazoli.inventorymanagementsystem.util.DocumentGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.xhtmlrenderer.pdf.ITextRenderer;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("benchmark")
+@SpringBootTest(properties = "logging.level.org.hibernate=WARN")
+@Import(TestApplication.class)
+@ActiveProfiles("test")
+class OrderBenchmarks {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderBenchmarks.class);
+
+    private static final String TEMPLATE = "order/order-document";
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DocumentGenerator documentGenerator;
+
+    @Autowired
+    private TemplateEngine templateEngine;
+
+    private Customer customer;
+    private List<Product> products;
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        user = userRepository.save(new User("user", "user@email.com", "$2a$10$gYCEDfFbidA3IInCfzcXdugclrYR/6FbQuogN7Ixc3ohWi90MEXiO"));
+        customer = customerRepository.save(new Customer("A", "A", "A", user));
+        products = productRepository.saveAll(IntStream.range(0, 500)
+                .mapToObj(i -> new Product("product" + i, null, 100, "1.00", user))
+                .toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        customerRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createOrderWithManyItems() {
+        // given
+        var builder = new OrderBuilder()
+                .status(OrderStatus.UNPAID)
+                .customer(customer);
+        products.forEach(product -> builder.item(1, new Product(product.getId())));
+        var order = builder.build();
+        // when
+        var start = System.nanoTime();
+        orderService.createOrder(order, user);
+        var elapsed = System.nanoTime() - start;
+        // then
+        logger.info("Created order with {} items in {} ms ({} rows/sec)",
+                products.size(), elapsed / 1_000_000, Math.round(products.size() / (elapsed / 1e9)));
+        assertThat(orderRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void createOrdersConcurrentlyForOneOwner() throws Exception {
+        // given
+        var threads = 8;
+        var ordersPerThread = 50;
+        var tasks = IntStream.range(0, threads).<Callable<Void>>mapToObj(thread -> () -> {
+            for (var i = 0; i < ordersPerThread; i++) {
+                var product = products.get(thread * ordersPerThread + i);
+                orderService.createOrder(new OrderBuilder()
+                        .status(OrderStatus.UNPAID)
+                        .customer(customer)
+                        .item(1, new Product(product.getId()))
+                        .build(), user);
+            }
+            return null;
+        }).toList();
+        var executor = Executors.newFixedThreadPool(threads);
+        // when
+        var start = System.nanoTime();
+        for (var future : executor.invokeAll(tasks)) {
+            future.get();
+        }
+        var elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        // then
+        logger.info("Created {} orders with {} threads in {} ms ({} orders/sec)",
+                threads * ordersPerThread, threads, elapsed / 1_000_000, Math.round(threads * ordersPerThread / (elapsed / 1e9)));
+        assertThat(orderRepository.findAll())
+                .extracting("number")
+                .hasSize(threads * ordersPerThread)
+                .doesNotHaveDuplicates();
+    }
+
+    @Test
+    void createAllOrders() {
+        // given
+        var orders = 10_000;
+        var itemsPerOrder = 3;
+        var lines = IntStream.range(0, orders * itemsPerOrder)
+                .mapToObj(i -> new OrderLineForm(
+                        customer.getName(),
+                        products.get(i % products.size()).getName(),
+                        1,
+                        i / itemsPerOrder % 2 == 0 ? OrderStatus.UNPAID : OrderStatus.PAID
+                ).toEntity())
+                .toList();
+        var chunks = IntStream.range(0, lines.size() / CsvConverter.CHUNK_SIZE)
+                .mapToObj(chunk -> lines.subList(chunk * CsvConverter.CHUNK_SIZE, (chunk + 1) * CsvConverter.CHUNK_SIZE));
+        // when
+        var start = System.nanoTime();
+        var result = orderService.createAllOrders(chunks, user);
+        var elapsed = System.nanoTime() - start;
+        // then
+        logger.info("Imported {} orders in {} ms ({} orders/min)",
+                orders, elapsed / 1_000_000, Math.round(orders / (elapsed / 6e10)));
+        assertThat(result).isEqualTo(new OrderImportResult(orders, 0));
+        assertThat(orderRepository.count()).isEqualTo(orders);
+    }
+
+    @Test
+    void renderOrderDocumentPooledAndUnpooled() {
+        // given
+        var builder = new OrderBuilder()
+                .status(OrderStatus.UNPAID)
+                .date(LocalDate.now())
+                .customer(customer);
+        products.subList(0, 20).forEach(product -> builder.item(1, product));
+        var variables = Map.<String, Object>of("order", builder.build());
+        var renders = 50;
+        Runnable pooled = () -> documentGenerator.generate(TEMPLATE, variables, Locale.ENGLISH, OutputStream.nullOutputStream());
+        Runnable unpooled = () -> renderWithNewRenderer(variables);
+        measure(pooled, renders);
+        measure(unpooled, renders);
+        // when
+        var pooledTime = measure(pooled, renders);
+        var unpooledTime = measure(unpooled, renders);
+        // then
+        logger.info("Rendered order document pooled in {} microseconds and unpooled in {} microseconds ({} renders after warm-up)",
+                pooledTime / 1_000, unpooledTime / 1_000, renders);
+    }
+
+    private long measure(Runnable render, int renders) {
+        var start = System.nanoTime();
+        for (var i = 0; i < renders; i++) {
+            render.run();
+        }
+        return (System.nanoTime() - start) / renders;
+    }
+
+    private void renderWithNewRenderer(Map<String, Object> variables) {
+        var context = new Context(Locale.ENGLISH);
+        context.setVariables(variables);
+        var html = templateEngine.process(TEMPLATE, context);
+        var baseUrl = OrderBenchmarks.class.getResource("/templates/" + TEMPLATE + ".html");
+        var renderer = new ITextRenderer();
+        renderer.setDocumentFromString(html, baseUrl.toExternalForm());
+        renderer.layout();
+        renderer.createPDF(OutputStream.nullOutputStream());
+    }
+
+}
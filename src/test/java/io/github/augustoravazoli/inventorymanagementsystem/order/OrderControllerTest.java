@@ -3,10 +3,16 @@ package io.github.augustoravazoli.inventorymanagementsystem.order;
 import io.github.augustoravazoli.inventorymanagementsystem.MockUserDetailsService;
 import io.github.augustoravazoli.inventorymanagementsystem.category.Category;
 import io.github.augustoravazoli.inventorymanagementsystem.customer.Customer;
+import io.github.augustoravazoli.inventorymanagementsystem.customer.CustomerOption;
 import io.github.augustoravazoli.inventorymanagementsystem.customer.CustomerService;
 import io.github.augustoravazoli.inventorymanagementsystem.product.Product;
+import io.github.augustoravazoli.inventorymanagementsystem.product.ProductOption;
 import io.github.augustoravazoli.inventorymanagementsystem.product.ProductService;
 import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Count;
+import io.github.augustoravazoli.inventorymanagementsystem.util.CsvConversionException;
+import io.github.augustoravazoli.inventorymanagementsystem.util.CsvConverter;
+import io.github.augustoravazoli.inventorymanagementsystem.util.CursorSlice;
 import io.github.augustoravazoli.inventorymanagementsystem.util.Document;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -17,32 +23,36 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.web.multipart.MultipartFile;
 
-import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.file.Files;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.stream.Stream;
 
-import static io.github.augustoravazoli.inventorymanagementsystem.customer.CustomerMatchers.customer;
+import static io.github.augustoravazoli.inventorymanagementsystem.customer.CustomerMatchers.customerOption;
 import static io.github.augustoravazoli.inventorymanagementsystem.order.OrderMatchers.item;
 import static io.github.augustoravazoli.inventorymanagementsystem.order.OrderMatchers.order;
-import static io.github.augustoravazoli.inventorymanagementsystem.product.ProductMatchers.product;
+import static io.github.augustoravazoli.inventorymanagementsystem.product.ProductMatchers.productOption;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Named.named;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -54,12 +64,18 @@ class OrderControllerTest {
     @MockBean
     private OrderService orderService;
 
+    @MockBean
+    private OrderPrintService orderPrintService;
+
     @MockBean
     private ProductService productService;
 
     @MockBean
     private CustomerService customerService;
 
+    @MockBean
+    private CsvConverter csvConverter;
+
     @Autowired
     private MockMvc client;
 
@@ -67,29 +83,25 @@ class OrderControllerTest {
     private Customer customerB = new Customer(2L, "B", "B", "B");
     private Product productA = new Product(1L, "A", new Category("A"), 10, new BigDecimal("1.00"));
     private Product productB = new Product(2L, "B", new Category("B"), 20, new BigDecimal("2.00"));
+    private List<CustomerOption> customerOptions = List.of(new CustomerOption(1L, "A"), new CustomerOption(2L, "B"));
+    private List<ProductOption> productOptions = List.of(
+            new ProductOption(1L, "A", new BigDecimal("1.00")),
+            new ProductOption(2L, "B", new BigDecimal("2.00"))
+    );
 
     @Nested
     class CreateOrderTests {
 
         @Test
         void retrieveCreateOrderPage() throws Exception {
-            // given
-            when(customerService.listCustomers(any(User.class))).thenReturn(List.of(customerA, customerB));
-            when(productService.listProducts(any(User.class))).thenReturn(List.of(productA, productB));
             // when
             var result = client.perform(get("/orders/create"));
             // then
             result.andExpectAll(
                     status().isOk(),
                     model().attribute("order", is(order())),
-                    model().attribute("customers", contains(
-                            customer(1L, "A", "A", "A"),
-                            customer(2L, "B", "B", "B")
-                    )),
-                    model().attribute("products", contains(
-                            product(1L, "A", "A", 10, "1.00"),
-                            product(2L, "B", "B", 20, "2.00")
-                    )),
+                    model().attribute("customers", empty()),
+                    model().attribute("products", empty()),
                     model().attribute("mode", "create"),
                     view().name("order/order-form")
             );
@@ -116,8 +128,8 @@ class OrderControllerTest {
         @Test
         void doNotCreateOrderWithProductsWithInsufficientStock() throws Exception {
             // given
-            when(customerService.listCustomers(any(User.class))).thenReturn(List.of(customerA, customerB));
-            when(productService.listProducts(any(User.class))).thenReturn(List.of(productA, productB));
+            when(customerService.findCustomerOptions(anyCollection(), any(User.class))).thenReturn(customerOptions);
+            when(productService.findProductOptions(anyCollection(), any(User.class))).thenReturn(productOptions);
             doThrow(ProductWithInsufficientStockException.class).when(orderService).createOrder(any(Order.class), any(User.class));
             // when
             var result = client.perform(post("/orders/create")
@@ -135,12 +147,12 @@ class OrderControllerTest {
                             order("UNPAID", 1L, contains(item(5, 1L)))
                     )),
                     model().attribute("customers", contains(
-                            customer(1L, "A", "A", "A"),
-                            customer(2L, "B", "B", "B")
+                            customerOption(1L, "A"),
+                            customerOption(2L, "B")
                     )),
                     model().attribute("products", contains(
-                            product(1L, "A", "A", 10, "1.00"),
-                            product(2L, "B", "B", 20, "2.00")
+                            productOption(1L, "A", "1.00"),
+                            productOption(2L, "B", "2.00")
                     )),
                     model().attribute("mode", "create"),
                     view().name("order/order-form")
@@ -161,43 +173,71 @@ class OrderControllerTest {
 
     }
 
+    @Nested
+    class CreateAllOrdersTests {
+
+        @Test
+        void createAllOrders() throws Exception {
+            // given
+            when(csvConverter.convertInChunks(any(MultipartFile.class), any())).thenReturn(Stream.empty());
+            when(orderService.createAllOrders(any(), any(User.class))).thenReturn(new OrderImportResult(2, 1));
+            var file = new MockMultipartFile("orders", "orders.csv", "text/csv", "".getBytes());
+            // when
+            var result = client.perform(multipart("/orders/create-all")
+                    .file(file)
+                    .sessionAttr("status", "PAID")
+                    .with(csrf())
+            );
+            // then
+            result.andExpectAll(
+                    status().isFound(),
+                    flash().attribute("importResult", new OrderImportResult(2, 1)),
+                    redirectedUrl("/orders/list?status=PAID")
+            );
+            verify(orderService, times(1)).createAllOrders(any(), any(User.class));
+        }
+
+        @Test
+        void doNotCreateAllOrdersWithInvalidOrdersFile() throws Exception {
+            // given
+            doThrow(CsvConversionException.class).when(csvConverter).convertInChunks(any(MultipartFile.class), any());
+            var file = new MockMultipartFile("orders", "orders.csv", "text/csv", "".getBytes());
+            // when
+            var result = client.perform(multipart("/orders/create-all")
+                    .file(file)
+                    .with(csrf())
+            );
+            // then
+            result.andExpectAll(
+                    status().isFound(),
+                    flash().attribute("mappingError", true),
+                    redirectedUrl("/orders/list?status=UNPAID")
+            );
+            verify(orderService, never()).createAllOrders(any(), any(User.class));
+        }
+
+    }
+
     @Nested
     class ListOrdersTests {
 
-        private final List<Order> orders = List.of(
-                new OrderBuilder()
-                        .status(OrderStatus.UNPAID)
-                        .date(LocalDate.now())
-                        .customer(customerA)
-                        .item(5, productA)
-                        .item(10, productB)
-                        .build(),
-                new OrderBuilder()
-                        .status(OrderStatus.UNPAID)
-                        .date(LocalDate.now())
-                        .customer(customerA)
-                        .item(5, productA)
-                        .item(10, productB)
-                        .build(),
-                new OrderBuilder()
-                        .status(OrderStatus.UNPAID)
-                        .date(LocalDate.now())
-                        .customer(customerA)
-                        .item(5, productA)
-                        .item(10, productB)
-                        .build()
+        private final List<OrderSummary> orders = List.of(
+                new OrderSummary(1L, 1, "A", LocalDate.now(), 15, new BigDecimal("25.00")),
+                new OrderSummary(2L, 2, "A", LocalDate.now(), 15, new BigDecimal("25.00")),
+                new OrderSummary(3L, 3, "A", LocalDate.now(), 15, new BigDecimal("25.00"))
         );
 
         @ParameterizedTest
         @EnumSource(OrderStatus.class)
         void listOrders(OrderStatus status) throws Exception {
             // given
-            var pageable = PageRequest.of(0, 8, Sort.by("date"));
-            var orderPage = new PageImpl<>(orders, pageable, 3);
-            when(orderService.listOrders(any(OrderStatus.class), anyInt(), any(User.class))).thenReturn(orderPage);
+            when(orderService.listOrders(any(OrderStatus.class), anyString(), isNull(), any(User.class))).thenReturn(new CursorSlice<>(orders, "previous", "next"));
+            when(orderService.countOrderPages(any(OrderStatus.class), any(User.class))).thenReturn(new Count(5, true));
             // when
             var result = client.perform(get("/orders/list")
                     .param("status", status.name())
+                    .param("page", "2")
+                    .param("after", "cursor")
             );
             // then
             result.andExpectAll(
@@ -208,11 +248,14 @@ class OrderControllerTest {
                             order("A", LocalDate.now(), 15, "25.00"),
                             order("A", LocalDate.now(), 15, "25.00")
                     )),
-                    model().attribute("currentPage", 1),
-                    model().attribute("totalPages", 1),
+                    model().attribute("currentPage", 2),
+                    model().attribute("previousCursor", "previous"),
+                    model().attribute("nextCursor", "next"),
+                    model().attribute("totalPages", new Count(5, true)),
                     view().name("order/order-table")
             );
-            verify(orderService, times(1)).listOrders(any(OrderStatus.class), anyInt(), any(User.class));
+            verify(orderService, times(1)).listOrders(any(OrderStatus.class), eq("cursor"), isNull(), any(User.class));
+            verify(orderService, times(1)).countOrderPages(any(OrderStatus.class), any(User.class));
         }
 
     }
@@ -223,20 +266,8 @@ class OrderControllerTest {
         @Test
         void findOrders() throws Exception {
             var orders = List.of(
-                    new OrderBuilder()
-                            .status(OrderStatus.UNPAID)
-                            .date(LocalDate.now())
-                            .customer(customerA)
-                            .item(5, productA)
-                            .item(10, productB)
-                            .build(),
-                    new OrderBuilder()
-                            .status(OrderStatus.UNPAID)
-                            .date(LocalDate.now())
-                            .customer(customerA)
-                            .item(5, productA)
-                            .item(10, productB)
-                            .build()
+                    new OrderSummary(1L, 1, "A", LocalDate.now(), 15, new BigDecimal("25.00")),
+                    new OrderSummary(2L, 2, "A", LocalDate.now(), 15, new BigDecimal("25.00"))
             );
             when(orderService.findOrders(any(OrderStatus.class), anyString(), any(User.class))).thenReturn(orders);
             // when
@@ -264,13 +295,12 @@ class OrderControllerTest {
         @Test
         void printOrder() throws Exception {
             // given
-            var content = new ByteArrayOutputStream();
-            content.writeBytes("content".getBytes());
-            when(orderService.printOrder(anyLong(), any(User.class))).thenReturn(new Document("filename", content, content.size()));
+            var content = new ByteArrayInputStream("content".getBytes());
+            when(orderService.printOrder(anyLong(), any(User.class))).thenReturn(new Document("filename", content, 7));
             // when
-            var result = client.perform(get("/orders/print/{id}", 1L));
+            var result = client.perform(get("/orders/print/{id}", 1L)).andExpect(request().asyncStarted()).andReturn();
             // then
-            result.andExpectAll(
+            client.perform(asyncDispatch(result)).andExpectAll(
                     status().isOk(),
                     content().contentType(MediaType.APPLICATION_PDF),
                     header().string("Content-Disposition", "attachment; filename=filename"),
@@ -279,6 +309,107 @@ class OrderControllerTest {
             verify(orderService, times(1)).printOrder(anyLong(), any(User.class));
         }
 
+        @Test
+        void printOrders() throws Exception {
+            // given
+            when(orderPrintService.findOrderIds(isNull(), any(OrderStatus.class), isNull(), isNull(), any(User.class))).thenReturn(List.of(1L, 2L));
+            // when
+            var result = client.perform(get("/orders/print").param("status", "UNPAID")).andExpect(request().asyncStarted()).andReturn();
+            // then
+            client.perform(asyncDispatch(result)).andExpectAll(
+                    status().isOk(),
+                    content().contentType("application/zip"),
+                    header().string("Content-Disposition", "attachment; filename=orders.zip")
+            );
+            verify(orderPrintService, times(1)).findOrderIds(isNull(), any(OrderStatus.class), isNull(), isNull(), any(User.class));
+            verify(orderPrintService, times(1)).printOrders(eq(List.of(1L, 2L)), any(User.class), any(Locale.class), any(OutputStream.class));
+        }
+
+        @Test
+        void doNotPrintOrdersWithoutFilter() throws Exception {
+            // given
+            when(orderPrintService.findOrderIds(isNull(), isNull(), isNull(), isNull(), any(User.class))).thenThrow(InvalidPrintFilterException.class);
+            // when
+            var result = client.perform(get("/orders/print"));
+            // then
+            result.andExpect(status().isBadRequest());
+            verify(orderPrintService, never()).printOrders(anyList(), any(User.class), any(Locale.class), any(OutputStream.class));
+        }
+
+        @Test
+        void submitPrintJob() throws Exception {
+            // given
+            var printJob = new PrintJob(1L, new User());
+            when(orderPrintService.submitPrintJob(anyLong(), any(User.class))).thenReturn(printJob);
+            // when
+            var result = client.perform(post("/orders/print/{id}/jobs", 1L).with(csrf()));
+            // then
+            result.andExpectAll(
+                    status().isAccepted(),
+                    header().string("Location", "/orders/print/jobs/" + printJob.getId()),
+                    jsonPath("$.id").value(printJob.getId()),
+                    jsonPath("$.status").value("PENDING")
+            );
+            verify(orderPrintService, times(1)).submitPrintJob(anyLong(), any(User.class));
+        }
+
+        @Test
+        void doNotSubmitPrintJobWhenQueueIsFull() throws Exception {
+            // given
+            when(orderPrintService.submitPrintJob(anyLong(), any(User.class))).thenThrow(PrintQueueFullException.class);
+            // when
+            var result = client.perform(post("/orders/print/{id}/jobs", 1L).with(csrf()));
+            // then
+            result.andExpect(status().isServiceUnavailable());
+        }
+
+        @Test
+        void retrievePrintJob() throws Exception {
+            // given
+            var printJob = new PrintJob(1L, new User());
+            when(orderPrintService.findPrintJob(anyString(), any(User.class))).thenReturn(printJob);
+            // when
+            var result = client.perform(get("/orders/print/jobs/{jobId}", printJob.getId()));
+            // then
+            result.andExpectAll(
+                    status().isOk(),
+                    jsonPath("$.id").value(printJob.getId()),
+                    jsonPath("$.status").value("PENDING")
+            );
+            verify(orderPrintService, times(1)).findPrintJob(anyString(), any(User.class));
+        }
+
+        @Test
+        void downloadPrintJob() throws Exception {
+            // given
+            var file = Files.createTempFile("order-print-", ".pdf");
+            Files.writeString(file, "content");
+            var printJob = new PrintJob(1L, new User());
+            printJob.done("filename", file, Files.size(file));
+            when(orderPrintService.findFinishedPrintJob(anyString(), any(User.class))).thenReturn(printJob);
+            // when
+            var result = client.perform(get("/orders/print/jobs/{jobId}/download", printJob.getId()));
+            // then
+            result.andExpectAll(
+                    status().isOk(),
+                    content().contentType(MediaType.APPLICATION_PDF),
+                    header().string("Content-Disposition", "attachment; filename=filename"),
+                    content().string("content")
+            );
+            verify(orderPrintService, times(1)).findFinishedPrintJob(anyString(), any(User.class));
+            Files.delete(file);
+        }
+
+        @Test
+        void doNotDownloadUnfinishedPrintJob() throws Exception {
+            // given
+            when(orderPrintService.findFinishedPrintJob(anyString(), any(User.class))).thenThrow(PrintJobNotFinishedException.class);
+            // when
+            var result = client.perform(get("/orders/print/jobs/{jobId}/download", "id"));
+            // then
+            result.andExpect(status().isConflict());
+        }
+
     }
 
     @Nested
@@ -294,8 +425,8 @@ class OrderControllerTest {
                     .item(5, productA)
                     .build();
             when(orderService.findOrder(anyLong(), any(User.class))).thenReturn(order);
-            when(customerService.listCustomers(any(User.class))).thenReturn(List.of(customerA, customerB));
-            when(productService.listProducts(any(User.class))).thenReturn(List.of(productA, productB));
+            when(customerService.findCustomerOptions(anyCollection(), any(User.class))).thenReturn(customerOptions);
+            when(productService.findProductOptions(anyCollection(), any(User.class))).thenReturn(productOptions);
             // when
             var result = client.perform(get("/orders/update/{id}", 1L));
             // then
@@ -306,12 +437,12 @@ class OrderControllerTest {
                     )),
                     model().attribute("id", 1L),
                     model().attribute("customers", contains(
-                            customer(1L, "A", "A", "A"),
-                            customer(2L, "B", "B", "B")
+                            customerOption(1L, "A"),
+                            customerOption(2L, "B")
                     )),
                     model().attribute("products", contains(
-                            product(1L, "A", "A", 10, "1.00"),
-                            product(2L, "B", "B", 20, "2.00")
+                            productOption(1L, "A", "1.00"),
+                            productOption(2L, "B", "2.00")
                     )),
                     model().attribute("mode", "update"),
                     view().name("order/order-form")
@@ -341,8 +472,8 @@ class OrderControllerTest {
         @Test
         void doNotUpdateOrderUsingProductsWithInsufficientStock() throws Exception {
             // given
-            when(customerService.listCustomers(any(User.class))).thenReturn(List.of(customerA, customerB));
-            when(productService.listProducts(any(User.class))).thenReturn(List.of(productA, productB));
+            when(customerService.findCustomerOptions(anyCollection(), any(User.class))).thenReturn(customerOptions);
+            when(productService.findProductOptions(anyCollection(), any(User.class))).thenReturn(productOptions);
             doThrow(ProductWithInsufficientStockException.class).when(orderService).updateOrder(anyLong(), any(Order.class), any(User.class));
             // when
             var result = client.perform(post("/orders/update/{id}", 1L)
@@ -361,12 +492,12 @@ class OrderControllerTest {
                     )),
                     model().attribute("id", 1L),
                     model().attribute("customers", contains(
-                            customer(1L, "A", "A", "A"),
-                            customer(2L, "B", "B", "B")
+                            customerOption(1L, "A"),
+                            customerOption(2L, "B")
                     )),
                     model().attribute("products", contains(
-                            product(1L, "A", "A", 10, "1.00"),
-                            product(2L, "B", "B", 20, "2.00")
+                            productOption(1L, "A", "1.00"),
+                            productOption(2L, "B", "2.00")
                     )),
                     model().attribute("mode", "update"),
                     view().name("order/order-form")
@@ -9,6 +9,7 @@ import io.github.augustoravazoli.inventorymanagementsystem.product.Product;
 import io.github.augustoravazoli.inventorymanagementsystem.product.ProductRepository;
 import io.github.augustoravazoli.inventorymanagementsystem.user.User;
 import io.github.augustoravazoli.inventorymanagementsystem.user.UserRepository;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -19,18 +20,26 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.TestExecutionEvent;
 import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.zip.ZipInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
@@ -111,7 +120,8 @@ class OrderEndpointsTests {
             var order = orderRepository.findAllWithItems().getFirst();
             assertThat(order)
                     .usingRecursiveComparison()
-                    .ignoringFields("id", "number", "items.id", "items.index", "items.order", "items.product.quantity")
+                    .ignoringFields("id", "number", "totalQuantity", "totalAmount", "items.id", "items.index", "items.order", "items.product.quantity")
+                    .ignoringFieldsMatchingRegexes(".*owner")
                     .isEqualTo(new OrderBuilder()
                             .status(OrderStatus.UNPAID)
                             .date(LocalDate.now())
@@ -121,12 +131,66 @@ class OrderEndpointsTests {
                             .owner(user)
                             .build()
                     );
+            assertThat(order.getOwner().getId()).isEqualTo(user.getId());
+            assertThat(order).extracting("totalQuantity", "totalAmount")
+                    .containsExactly(15, new BigDecimal("25.00"));
             assertThat(order.getItems()).extracting("product.quantity")
                     .containsExactly(5, 10);
         }
 
     }
 
+    @Nested
+    class CreateAllOrdersTests {
+
+        @Test
+        void createAllOrders() throws Exception {
+            // given
+            var csv = "customer;product;quantity;status\nA;A;5;UNPAID\nA;B;10;UNPAID\nB;A;8;PAID\nB;C;1;UNPAID\nZ;A;1;UNPAID";
+            var file = new MockMultipartFile("orders", "orders.csv", "text/csv", csv.getBytes());
+            // when
+            var result = client.perform(multipart("/orders/create-all")
+                    .file(file)
+                    .with(csrf())
+            );
+            // then
+            result.andExpectAll(
+                    status().isFound(),
+                    flash().attribute("importResult", new OrderImportResult(2, 2)),
+                    redirectedUrl("/orders/list?status=UNPAID")
+            );
+            assertThat(orderRepository.findAllWithItems())
+                    .extracting("customer.name", "status", "totalQuantity", "totalAmount", "owner.id")
+                    .containsExactlyInAnyOrder(
+                            tuple("A", OrderStatus.UNPAID, 15, new BigDecimal("25.00"), user.getId()),
+                            tuple("B", OrderStatus.UNPAID, 1, new BigDecimal("3.00"), user.getId())
+                    );
+            assertThat(productRepository.findAll(Sort.by("name")))
+                    .extracting("quantity")
+                    .containsExactly(5, 10, 29, 40);
+        }
+
+        @Test
+        void doNotCreateAllOrdersWithInvalidOrdersFile() throws Exception {
+            // given
+            var csv = "customer;product;quantity;status\nA;A;0;UNPAID";
+            var file = new MockMultipartFile("orders", "orders.csv", "text/csv", csv.getBytes());
+            // when
+            var result = client.perform(multipart("/orders/create-all")
+                    .file(file)
+                    .with(csrf())
+            );
+            // then
+            result.andExpectAll(
+                    status().isFound(),
+                    flash().attribute("mappingError", true),
+                    redirectedUrl("/orders/list?status=UNPAID")
+            );
+            assertThat(orderRepository.count()).isZero();
+        }
+
+    }
+
     @Nested
     class ListOrdersTests {
 
@@ -222,9 +286,69 @@ class OrderEndpointsTests {
                     .build()
             );
             // when
-            var result = client.perform(get("/orders/print/{id}", order.getId()));
+            var result = client.perform(get("/orders/print/{id}", order.getId())).andExpect(request().asyncStarted()).andReturn();
             // then
-            result.andExpectAll(
+            client.perform(asyncDispatch(result)).andExpectAll(
+                    status().isOk(),
+                    content().contentType(MediaType.APPLICATION_PDF),
+                    header().exists("Content-Disposition")
+            );
+        }
+
+        @Test
+        void printOrders() throws Exception {
+            // given
+            orderRepository.saveAll(List.of(
+                    new OrderBuilder().status(OrderStatus.UNPAID).customer(customerA).item(5, productA).owner(user).build(),
+                    new OrderBuilder().status(OrderStatus.UNPAID).customer(customerA).item(10, productB).owner(user).build(),
+                    new OrderBuilder().status(OrderStatus.PAID).customer(customerA).item(10, productB).owner(user).build()
+            ));
+            // when
+            var result = client.perform(get("/orders/print").param("status", "UNPAID")).andExpect(request().asyncStarted()).andReturn();
+            // then
+            var content = client.perform(asyncDispatch(result))
+                    .andExpectAll(
+                            status().isOk(),
+                            content().contentType("application/zip")
+                    )
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsByteArray();
+            var entries = 0;
+            try (var zip = new ZipInputStream(new ByteArrayInputStream(content))) {
+                while (zip.getNextEntry() != null) {
+                    entries++;
+                }
+            }
+            assertThat(entries).isEqualTo(2);
+        }
+
+        @Test
+        void printOrderAsynchronously() throws Exception {
+            // given
+            var order = orderRepository.save(new OrderBuilder()
+                    .status(OrderStatus.UNPAID)
+                    .customer(customerA)
+                    .item(5, productA)
+                    .item(10, productB)
+                    .owner(user)
+                    .build()
+            );
+            // when
+            var result = client.perform(post("/orders/print/{id}/jobs", order.getId()).with(csrf()));
+            // then
+            result.andExpect(status().isAccepted());
+            String jobId = JsonPath.read(result.andReturn().getResponse().getContentAsString(), "$.id");
+            var status = "PENDING";
+            for (var i = 0; i < 100 && status.equals("PENDING"); i++) {
+                Thread.sleep(100);
+                status = JsonPath.read(client.perform(get("/orders/print/jobs/{jobId}", jobId))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString(), "$.status");
+            }
+            assertThat(status).isEqualTo("DONE");
+            client.perform(get("/orders/print/jobs/{jobId}/download", jobId)).andExpectAll(
                     status().isOk(),
                     content().contentType(MediaType.APPLICATION_PDF),
                     header().exists("Content-Disposition")
@@ -236,6 +360,28 @@ class OrderEndpointsTests {
     @Nested
     class UpdateOrderTests {
 
+        @Test
+        void retrieveUpdateOrderPage() throws Exception {
+            // given
+            var id = orderRepository.save(new OrderBuilder()
+                    .status(OrderStatus.UNPAID)
+                    .customer(customerA)
+                    .item(5, productA)
+                    .item(8, productB)
+                    .owner(user)
+                    .build())
+                    .getId();
+            // when
+            var result = client.perform(get("/orders/update/{id}", id));
+            // then
+            result.andExpectAll(
+                    status().isOk(),
+                    model().attribute("order", hasProperty("items", hasSize(2))),
+                    model().attribute("id", id),
+                    view().name("order/order-form")
+            );
+        }
+
         @Test
         void updateOrder() throws Exception {
             // given
@@ -273,7 +419,8 @@ class OrderEndpointsTests {
             var order = orderRepository.findAllWithItems().getFirst();
             assertThat(order)
                     .usingRecursiveComparison()
-                    .ignoringFields("id", "number", "date", "items.id", "items.index", "items.order", "items.product.quantity")
+                    .ignoringFields("id", "number", "date", "totalQuantity", "totalAmount", "items.id", "items.index", "items.order", "items.product.quantity")
+                    .ignoringFieldsMatchingRegexes(".*owner")
                     .isEqualTo(new OrderBuilder()
                             .status(OrderStatus.PAID)
                             .customer(customerB)
@@ -283,6 +430,9 @@ class OrderEndpointsTests {
                             .owner(user)
                             .build()
                     );
+            assertThat(order.getOwner().getId()).isEqualTo(user.getId());
+            assertThat(order).extracting("totalQuantity", "totalAmount")
+                    .containsExactly(33, new BigDecimal("103.00"));
             assertThat(productRepository.findAll(Sort.by("name")))
                     .extracting("quantity")
                     .containsExactly(7, 10, 30, 20);
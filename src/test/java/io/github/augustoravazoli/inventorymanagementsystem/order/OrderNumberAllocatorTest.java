@@ -0,0 +1,68 @@
+package io.github.augustoravazoli.inventorymanagementsystem.order;
+
+import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderNumberAllocatorTest {
+
+    @InjectMocks
+    private OrderNumberAllocator orderNumberAllocator;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    private final User userA = new User(1L, "A", "a@email.com", "password");
+    private final User userB = new User(2L, "B", "b@email.com", "password");
+
+    @Test
+    void nextNumberAllocatesBlockOnlyWhenExhausted() {
+        // given
+        when(orderRepository.allocateOrderNumbers(1L, 20)).thenReturn(20, 40);
+        // when
+        var numbers = IntStream.range(0, 21).map(i -> orderNumberAllocator.nextNumber(userA)).toArray();
+        // then
+        assertThat(numbers).containsExactly(IntStream.rangeClosed(1, 21).toArray());
+        verify(orderRepository, times(2)).allocateOrderNumbers(1L, 20);
+    }
+
+    @Test
+    void nextNumberAllocatesBlocksPerOwner() {
+        // given
+        when(orderRepository.allocateOrderNumbers(1L, 20)).thenReturn(20);
+        when(orderRepository.allocateOrderNumbers(2L, 20)).thenReturn(60);
+        // when
+        var numberA = orderNumberAllocator.nextNumber(userA);
+        var numberB = orderNumberAllocator.nextNumber(userB);
+        // then
+        assertThat(numberA).isEqualTo(1);
+        assertThat(numberB).isEqualTo(41);
+    }
+
+    @Test
+    void doNotTakeNumberInsideTransaction() {
+        // given
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            // when
+            var exception = assertThatThrownBy(() -> orderNumberAllocator.nextNumber(userA));
+            // then
+            exception.isInstanceOf(IllegalStateException.class);
+            verify(orderRepository, never()).allocateOrderNumbers(anyLong(), anyInt());
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+}
@@ -2,11 +2,15 @@ package io.github.augustoravazoli.inventorymanagementsystem.order;
 
 import io.github.augustoravazoli.inventorymanagementsystem.category.Category;
 import io.github.augustoravazoli.inventorymanagementsystem.customer.Customer;
+import io.github.augustoravazoli.inventorymanagementsystem.customer.CustomerOption;
 import io.github.augustoravazoli.inventorymanagementsystem.customer.CustomerRepository;
 import io.github.augustoravazoli.inventorymanagementsystem.product.Product;
 import io.github.augustoravazoli.inventorymanagementsystem.product.ProductRepository;
 import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Count;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Cursor;
 import io.github.augustoravazoli.inventorymanagementsystem.util.Document;
+import io.github.augustoravazoli.inventorymanagementsystem.util.InvalidCursorException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -14,18 +18,23 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
 
-import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -46,6 +55,12 @@ class OrderServiceTest {
     @Mock
     private OrderDocumentGenerator orderDocumentGenerator;
 
+    @Mock
+    private OrderNumberAllocator orderNumberAllocator;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private Customer customerA;
     private Customer customerB;
     private Product productA;
@@ -75,14 +90,18 @@ class OrderServiceTest {
                     .item(10, productB)
                     .build();
             when(customerRepository.existsByIdAndOwner(1L, user)).thenReturn(true);
-            when(productRepository.findByIdAndOwner(1L, user)).thenReturn(Optional.of(productA));
-            when(productRepository.findByIdAndOwner(2L, user)).thenReturn(Optional.of(productB));
+            when(productRepository.findAllByIdInAndOwner(Set.of(1L, 2L), user)).thenReturn(List.of(productA, productB));
+            when(productRepository.decreaseQuantities(Map.of(1L, 5, 2L, 10), user)).thenReturn(2);
+            when(orderNumberAllocator.nextNumber(user)).thenReturn(1);
             // when
             orderService.createOrder(order, user);
             // then
             assertThat(order.getOwner()).isEqualTo(user);
-            assertThat(productA.getQuantity()).isEqualTo(5);
-            assertThat(productB.getQuantity()).isEqualTo(10);
+            assertThat(order.getNumber()).isEqualTo(1);
+            assertThat(order.getTotalQuantity()).isEqualTo(15);
+            assertThat(order.getTotalAmount()).isEqualTo(new BigDecimal("25.00"));
+            verify(productRepository, times(1)).findAllByIdInAndOwner(Set.of(1L, 2L), user);
+            verify(productRepository, times(1)).decreaseQuantities(Map.of(1L, 5, 2L, 10), user);
             verify(orderRepository, times(1)).save(order);
         }
 
@@ -100,8 +119,7 @@ class OrderServiceTest {
             var exception = assertThatThrownBy(() -> orderService.createOrder(order, user));
             // then
             exception.isInstanceOf(InvalidCustomerException.class);
-            assertThat(productA.getQuantity()).isEqualTo(10);
-            assertThat(productB.getQuantity()).isEqualTo(20);
+            verify(productRepository, never()).decreaseQuantities(anyMap(), any(User.class));
             verify(orderRepository, never()).save(any(Order.class));
         }
 
@@ -114,11 +132,12 @@ class OrderServiceTest {
                     .item(5, productA)
                     .build();
             when(customerRepository.existsByIdAndOwner(1L, user)).thenReturn(true);
-            when(productRepository.findByIdAndOwner(1L, user)).thenReturn(Optional.empty());
+            when(productRepository.findAllByIdInAndOwner(Set.of(1L), user)).thenReturn(List.of());
             // when
             var exception = assertThatThrownBy(() -> orderService.createOrder(order, user));
             // then
             exception.isInstanceOf(InvalidProductException.class);
+            verify(productRepository, never()).decreaseQuantities(anyMap(), any(User.class));
             verify(orderRepository, never()).save(any(Order.class));
         }
 
@@ -131,55 +150,190 @@ class OrderServiceTest {
                     .item(1000, productA)
                     .build();
             when(customerRepository.existsByIdAndOwner(1L, user)).thenReturn(true);
-            when(productRepository.findByIdAndOwner(1L, user)).thenReturn(Optional.of(productA));
+            when(productRepository.findAllByIdInAndOwner(Set.of(1L), user)).thenReturn(List.of(productA));
+            when(productRepository.decreaseQuantities(Map.of(1L, 1000), user)).thenReturn(0);
             // when
             var exception = assertThatThrownBy(() -> orderService.createOrder(order, user));
             // then
             exception.isInstanceOf(ProductWithInsufficientStockException.class);
-            assertThat(productA.getQuantity()).isEqualTo(10);
             verify(orderRepository, never()).save(any(Order.class));
         }
 
     }
 
+    @Nested
+    class CreateAllOrdersTests {
+
+        @Test
+        void createAllOrders() {
+            // given
+            var lines = List.of(
+                    new OrderLineForm("A", "A", 5, OrderStatus.UNPAID).toEntity(),
+                    new OrderLineForm("A", "B", 10, OrderStatus.UNPAID).toEntity(),
+                    new OrderLineForm("A", "A", 1, OrderStatus.UNPAID).toEntity(),
+                    new OrderLineForm("B", "A", 2, OrderStatus.PAID).toEntity()
+            );
+            when(customerRepository.findOptionsByNameInAndOwner(Set.of("A", "B"), user))
+                    .thenReturn(List.of(new CustomerOption(1L, "A"), new CustomerOption(2L, "B")));
+            when(productRepository.findAllByNameInAndOwner(Set.of("A", "B"), user)).thenReturn(List.of(productA, productB));
+            when(productRepository.lockQuantities(Set.of(1L, 2L), user)).thenReturn(new HashMap<>(Map.of(1L, 10, 2L, 20)));
+            when(productRepository.decreaseQuantities(Map.of(1L, 8, 2L, 10), user)).thenReturn(2);
+            when(orderNumberAllocator.nextNumber(user)).thenReturn(1, 2);
+            // when
+            var result = orderService.createAllOrders(Stream.of(lines), user);
+            // then
+            var orderA = lines.get(0);
+            var orderB = lines.get(3);
+            assertThat(result).isEqualTo(new OrderImportResult(2, 0));
+            assertThat(orderA.getItems()).extracting("quantity", "product").containsExactly(tuple(6, productA), tuple(10, productB));
+            assertThat(orderA).extracting("number", "customer.id", "owner").containsExactly(1, 1L, user);
+            assertThat(orderB.getItems()).extracting("quantity", "product").containsExactly(tuple(2, productA));
+            assertThat(orderB).extracting("number", "customer.id", "owner").containsExactly(2, 2L, user);
+            verify(orderRepository, times(1)).insertAll(List.of(orderA, orderB));
+        }
+
+        @Test
+        void rejectOrdersWithNonexistentCustomerOrProducts() {
+            // given
+            var lines = List.of(
+                    new OrderLineForm("A", "A", 5, OrderStatus.UNPAID).toEntity(),
+                    new OrderLineForm("C", "A", 5, OrderStatus.UNPAID).toEntity(),
+                    new OrderLineForm("A", "D", 5, OrderStatus.PAID).toEntity()
+            );
+            when(customerRepository.findOptionsByNameInAndOwner(Set.of("A", "C"), user)).thenReturn(List.of(new CustomerOption(1L, "A")));
+            when(productRepository.findAllByNameInAndOwner(Set.of("A", "D"), user)).thenReturn(List.of(productA));
+            when(productRepository.lockQuantities(Set.of(1L), user)).thenReturn(new HashMap<>(Map.of(1L, 10)));
+            when(productRepository.decreaseQuantities(Map.of(1L, 5), user)).thenReturn(1);
+            when(orderNumberAllocator.nextNumber(user)).thenReturn(1);
+            // when
+            var result = orderService.createAllOrders(Stream.of(lines), user);
+            // then
+            assertThat(result).isEqualTo(new OrderImportResult(1, 2));
+            verify(orderRepository, times(1)).insertAll(List.of(lines.getFirst()));
+        }
+
+        @Test
+        void rejectOrdersWithProductsWithInsufficientStock() {
+            // given
+            var lines = List.of(
+                    new OrderLineForm("A", "A", 8, OrderStatus.UNPAID).toEntity(),
+                    new OrderLineForm("B", "A", 5, OrderStatus.UNPAID).toEntity(),
+                    new OrderLineForm("A", "A", 2, OrderStatus.UNPAID).toEntity()
+            );
+            when(customerRepository.findOptionsByNameInAndOwner(Set.of("A", "B"), user))
+                    .thenReturn(List.of(new CustomerOption(1L, "A"), new CustomerOption(2L, "B")));
+            when(productRepository.findAllByNameInAndOwner(Set.of("A"), user)).thenReturn(List.of(productA));
+            when(productRepository.lockQuantities(Set.of(1L), user)).thenReturn(new HashMap<>(Map.of(1L, 10)));
+            when(productRepository.decreaseQuantities(Map.of(1L, 10), user)).thenReturn(1);
+            when(orderNumberAllocator.nextNumber(user)).thenReturn(1, 2);
+            // when
+            var result = orderService.createAllOrders(Stream.of(lines), user);
+            // then
+            assertThat(result).isEqualTo(new OrderImportResult(2, 1));
+            verify(orderRepository, times(1)).insertAll(List.of(lines.get(0), lines.get(2)));
+        }
+
+        @Test
+        void rejectOnlyOrdersShortOfLockedStock() {
+            // given
+            var lines = List.of(
+                    new OrderLineForm("A", "A", 5, OrderStatus.UNPAID).toEntity(),
+                    new OrderLineForm("B", "B", 2, OrderStatus.UNPAID).toEntity()
+            );
+            when(customerRepository.findOptionsByNameInAndOwner(Set.of("A", "B"), user))
+                    .thenReturn(List.of(new CustomerOption(1L, "A"), new CustomerOption(2L, "B")));
+            when(productRepository.findAllByNameInAndOwner(Set.of("A", "B"), user)).thenReturn(List.of(productA, productB));
+            when(productRepository.lockQuantities(Set.of(1L, 2L), user)).thenReturn(new HashMap<>(Map.of(1L, 4, 2L, 20)));
+            when(productRepository.decreaseQuantities(Map.of(2L, 2), user)).thenReturn(1);
+            when(orderNumberAllocator.nextNumber(user)).thenReturn(1, 2);
+            // when
+            var result = orderService.createAllOrders(Stream.of(lines), user);
+            // then
+            assertThat(result).isEqualTo(new OrderImportResult(1, 1));
+            verify(orderRepository, times(1)).insertAll(List.of(lines.get(1)));
+        }
+
+    }
+
     @Nested
     class ListOrdersTests {
 
-        private final List<Order> orders = List.of(
-                new OrderBuilder()
-                        .status(OrderStatus.UNPAID)
-                        .date(LocalDate.now())
-                        .customer(customerA)
-                        .item(5, productA)
-                        .item(10, productB)
-                        .build(),
-                new OrderBuilder()
-                        .status(OrderStatus.UNPAID)
-                        .date(LocalDate.now())
-                        .customer(customerA)
-                        .item(5, productA)
-                        .item(10, productB)
-                        .build(),
-                new OrderBuilder()
-                        .status(OrderStatus.UNPAID)
-                        .date(LocalDate.now())
-                        .customer(customerA)
-                        .item(5, productA)
-                        .item(10, productB)
-                        .build()
+        private final List<OrderSummary> orders = List.of(
+                new OrderSummary(1L, 1, "A", LocalDate.now(), 15, new BigDecimal("25.00")),
+                new OrderSummary(2L, 2, "A", LocalDate.now(), 15, new BigDecimal("25.00")),
+                new OrderSummary(3L, 3, "A", LocalDate.now(), 15, new BigDecimal("25.00"))
         );
 
+        @Test
+        void countOrderPages() {
+            // given
+            var owner = new User(1L, "user", "user@email.com", "password");
+            when(orderRepository.countByStatusAndOwner("UNPAID", 1L, 1000)).thenReturn(17L);
+            // when
+            var pages = orderService.countOrderPages(OrderStatus.UNPAID, owner);
+            // then
+            assertThat(pages).isEqualTo(new Count(3, true));
+        }
+
+        @Test
+        void countOrderPagesApproximately() {
+            // given
+            var owner = new User(1L, "user", "user@email.com", "password");
+            when(orderRepository.countByStatusAndOwner("UNPAID", 1L, 1000)).thenReturn(5000L);
+            // when
+            var pages = orderService.countOrderPages(OrderStatus.UNPAID, owner);
+            // then
+            assertThat(pages).isEqualTo(new Count(625, false));
+        }
+
         @Test
         void listOrdersPaginated() {
             // given
-            var pageable = PageRequest.of(0, 8, Sort.by("date"));
-            var expectedOrderPage = new PageImpl<>(orders, pageable, 3);
-            when(orderRepository.findAllByStatusAndOwner(OrderStatus.UNPAID, user, pageable)).thenReturn(expectedOrderPage);
+            var pageable = PageRequest.ofSize(8);
+            when(orderRepository.findSummariesByStatusAndOwner(OrderStatus.UNPAID, user, pageable)).thenReturn(new SliceImpl<>(orders, pageable, true));
+            // when
+            var actualOrderSlice = orderService.listOrders(OrderStatus.UNPAID, null, null, user);
+            // then
+            assertThat(actualOrderSlice.content()).extracting("date").isSorted();
+            assertThat(actualOrderSlice.content()).usingRecursiveComparison().isEqualTo(orders);
+            assertThat(actualOrderSlice.previousCursor()).isNull();
+            assertThat(actualOrderSlice.nextCursor()).isEqualTo(new Cursor(LocalDate.now().toString(), 3L).encode());
+        }
+
+        @Test
+        void listOrdersAfterCursor() {
+            // given
+            var pageable = PageRequest.ofSize(8);
+            var date = LocalDate.now().minusDays(1);
+            when(orderRepository.findSummariesByStatusAndOwnerAfter(OrderStatus.UNPAID, user, date, 10L, pageable)).thenReturn(new SliceImpl<>(orders, pageable, false));
+            // when
+            var actualOrderSlice = orderService.listOrders(OrderStatus.UNPAID, new Cursor(date.toString(), 10L).encode(), null, user);
+            // then
+            assertThat(actualOrderSlice.content()).usingRecursiveComparison().isEqualTo(orders);
+            assertThat(actualOrderSlice.previousCursor()).isEqualTo(new Cursor(LocalDate.now().toString(), 1L).encode());
+            assertThat(actualOrderSlice.nextCursor()).isNull();
+        }
+
+        @Test
+        void listOrdersBeforeCursor() {
+            // given
+            var pageable = PageRequest.ofSize(8);
+            var date = LocalDate.now().plusDays(1);
+            when(orderRepository.findSummariesByStatusAndOwnerBefore(OrderStatus.UNPAID, user, date, 10L, pageable)).thenReturn(new SliceImpl<>(orders.reversed(), pageable, false));
+            // when
+            var actualOrderSlice = orderService.listOrders(OrderStatus.UNPAID, null, new Cursor(date.toString(), 10L).encode(), user);
+            // then
+            assertThat(actualOrderSlice.content()).usingRecursiveComparison().isEqualTo(orders);
+            assertThat(actualOrderSlice.previousCursor()).isNull();
+            assertThat(actualOrderSlice.nextCursor()).isEqualTo(new Cursor(LocalDate.now().toString(), 3L).encode());
+        }
+
+        @Test
+        void doNotListOrdersWithInvalidCursorDate() {
             // when
-            var actualOrderPage = orderService.listOrders(OrderStatus.UNPAID, 1, user);
+            var exception = assertThatThrownBy(() -> orderService.listOrders(OrderStatus.UNPAID, new Cursor("date", 1L).encode(), null, user));
             // then
-            assertThat(actualOrderPage.getContent()).extracting("date").isSorted();
-            assertThat(actualOrderPage).usingRecursiveComparison().isEqualTo(expectedOrderPage);
+            exception.isInstanceOf(InvalidCursorException.class);
         }
 
     }
@@ -191,30 +345,31 @@ class OrderServiceTest {
         void findOrders() {
             // given
             var expectedOrders = List.of(
-                    new OrderBuilder()
-                            .status(OrderStatus.UNPAID)
-                            .date(LocalDate.now())
-                            .customer(customerA)
-                            .item(5, productA)
-                            .item(10, productB)
-                            .build(),
-                    new OrderBuilder()
-                            .status(OrderStatus.UNPAID)
-                            .date(LocalDate.now())
-                            .customer(customerA)
-                            .item(5, productA)
-                            .item(10, productB)
-                            .build()
+                    new OrderSummary(1L, 1, "A", LocalDate.now(), 15, new BigDecimal("25.00")),
+                    new OrderSummary(2L, 2, "A", LocalDate.now(), 15, new BigDecimal("25.00"))
             );
-            when(orderRepository.findAllByStatusAndCustomerNameContainingIgnoreCaseAndOwner(OrderStatus.UNPAID, "A", user))
-                    .thenReturn(expectedOrders);
+            when(customerRepository.searchIdsByNameAndOwner("A", "%A%", user, 50)).thenReturn(List.of(1L));
+            when(orderRepository.findSummariesByStatusAndCustomerIdInAndOwner(
+                    OrderStatus.UNPAID, List.of(1L), user, PageRequest.ofSize(50)
+            )).thenReturn(expectedOrders);
             // when
             var actualOrders = orderService.findOrders(OrderStatus.UNPAID, "A", user);
             // then
-            assertThat(actualOrders).extracting("customer.name").isSorted();
+            assertThat(actualOrders).extracting("customerName").isSorted();
             assertThat(actualOrders).usingRecursiveComparison().isEqualTo(expectedOrders);
         }
 
+        @Test
+        void findNoOrdersWhenNoCustomerMatches() {
+            // given
+            when(customerRepository.searchIdsByNameAndOwner("A", "%A%", user, 50)).thenReturn(List.of());
+            // when
+            var actualOrders = orderService.findOrders(OrderStatus.UNPAID, "A", user);
+            // then
+            assertThat(actualOrders).isEmpty();
+            verify(orderRepository, never()).findSummariesByStatusAndCustomerIdInAndOwner(any(), any(), any(), any());
+        }
+
     }
 
     @Nested
@@ -270,7 +425,7 @@ class OrderServiceTest {
         @Test
         void printOrder() {
             // given
-            var expectedDocument = new Document("filename", new ByteArrayOutputStream(), 0);
+            var expectedDocument = new Document("filename", InputStream.nullInputStream(), 0);
             when(orderRepository.findByIdAndOwner(1L, user)).thenReturn(Optional.of(order));
             when(orderDocumentGenerator.generateOrderDocument(order)).thenReturn(expectedDocument);
             // when
@@ -323,18 +478,17 @@ class OrderServiceTest {
                     .build();
             when(orderRepository.findByIdAndOwner(1L, user)).thenReturn(Optional.of(order));
             when(customerRepository.existsByIdAndOwner(2L, user)).thenReturn(true);
-            when(productRepository.findByIdAndOwner(1L, user)).thenReturn(Optional.of(productA));
-            when(productRepository.findByIdAndOwner(2L, user)).thenReturn(Optional.of(productB));
-            when(productRepository.findByIdAndOwner(3L, user)).thenReturn(Optional.of(productC));
+            when(productRepository.findAllByIdInAndOwner(Set.of(1L, 2L, 3L), user)).thenReturn(List.of(productA, productB, productC));
+            when(productRepository.decreaseQuantities(Map.of(3L, 15), user)).thenReturn(1);
             // when
             orderService.updateOrder(1L, updatedOrder, user);
             // then
             assertThat(order.getOwner()).isEqualTo(user);
-            assertThat(order).usingRecursiveComparison().ignoringFields("id", "owner").isEqualTo(updatedOrder);
-            assertThat(productA.getQuantity()).isEqualTo(5);
-            assertThat(productB.getQuantity()).isEqualTo(12);
-            assertThat(productC.getQuantity()).isEqualTo(15);
+            assertThat(order).usingRecursiveComparison().ignoringFields("id", "owner", "totalQuantity", "totalAmount").isEqualTo(updatedOrder);
+            verify(productRepository, never()).increaseQuantities(anyMap(), any(User.class));
+            verify(productRepository, times(1)).decreaseQuantities(Map.of(3L, 15), user);
             verify(orderRepository, times(1)).save(order);
+            verify(orderDocumentGenerator, times(1)).evictOrderDocument(1L);
         }
 
         @Test
@@ -347,15 +501,14 @@ class OrderServiceTest {
                     .build();
             when(orderRepository.findByIdAndOwner(1L, user)).thenReturn(Optional.of(order));
             when(customerRepository.existsByIdAndOwner(2L, user)).thenReturn(true);
-            when(productRepository.findByIdAndOwner(1L, user)).thenReturn(Optional.of(productA));
-            when(productRepository.findByIdAndOwner(2L, user)).thenReturn(Optional.of(productB));
+            when(productRepository.findAllByIdInAndOwner(Set.of(1L), user)).thenReturn(List.of(productA));
             // when
             orderService.updateOrder(1L, updatedOrder, user);
             // then
             assertThat(order.getOwner()).isEqualTo(user);
-            assertThat(order).usingRecursiveComparison().ignoringFields("id", "owner").isEqualTo(updatedOrder);
-            assertThat(productA.getQuantity()).isEqualTo(5);
-            assertThat(productB.getQuantity()).isEqualTo(20);
+            assertThat(order).usingRecursiveComparison().ignoringFields("id", "owner", "totalQuantity", "totalAmount").isEqualTo(updatedOrder);
+            verify(productRepository, times(1)).increaseQuantities(Map.of(2L, 8), user);
+            verify(productRepository, never()).decreaseQuantities(anyMap(), any(User.class));
             verify(orderRepository, times(1)).save(order);
         }
 
@@ -370,15 +523,17 @@ class OrderServiceTest {
                     .build();
             when(orderRepository.findByIdAndOwner(1L, user)).thenReturn(Optional.of(order));
             when(customerRepository.existsByIdAndOwner(2L, user)).thenReturn(true);
-            when(productRepository.findByIdAndOwner(1L, user)).thenReturn(Optional.of(productA));
-            when(productRepository.findByIdAndOwner(2L, user)).thenReturn(Optional.of(productB));
+            when(productRepository.findAllByIdInAndOwner(Set.of(1L, 2L), user)).thenReturn(List.of(productA, productB));
+            when(productRepository.decreaseQuantities(Map.of(2L, 6), user)).thenReturn(1);
             // when
             orderService.updateOrder(1L, updatedOrder, user);
             // then
             assertThat(order.getOwner()).isEqualTo(user);
-            assertThat(order).usingRecursiveComparison().ignoringFields("id", "owner").isEqualTo(updatedOrder);
-            assertThat(productA.getQuantity()).isEqualTo(7);
-            assertThat(productB.getQuantity()).isEqualTo(6);
+            assertThat(order).usingRecursiveComparison().ignoringFields("id", "owner", "totalQuantity", "totalAmount").isEqualTo(updatedOrder);
+            assertThat(order.getTotalQuantity()).isEqualTo(17);
+            assertThat(order.getTotalAmount()).isEqualTo(new BigDecimal("31.00"));
+            verify(productRepository, times(1)).increaseQuantities(Map.of(1L, 2), user);
+            verify(productRepository, times(1)).decreaseQuantities(Map.of(2L, 6), user);
             verify(orderRepository, times(1)).save(order);
         }
 
@@ -395,15 +550,14 @@ class OrderServiceTest {
                     .build();
             when(orderRepository.findByIdAndOwner(1L, user)).thenReturn(Optional.of(order));
             when(customerRepository.existsByIdAndOwner(2L, user)).thenReturn(true);
-            when(productRepository.findByIdAndOwner(1L, user)).thenReturn(Optional.of(productA));
-            when(productRepository.findByIdAndOwner(2L, user)).thenReturn(Optional.of(productB));
+            when(productRepository.findAllByIdInAndOwner(Set.of(1L, 2L), user)).thenReturn(List.of(productA, productB));
             // when
             orderService.updateOrder(1L, updatedOrder, user);
             // then
             assertThat(order.getOwner()).isEqualTo(user);
-            assertThat(order).usingRecursiveComparison().ignoringFields("id", "owner").isEqualTo(updatedOrder);
-            assertThat(productA.getQuantity()).isEqualTo(0);
-            assertThat(productB.getQuantity()).isEqualTo(0);
+            assertThat(order).usingRecursiveComparison().ignoringFields("id", "owner", "totalQuantity", "totalAmount").isEqualTo(updatedOrder);
+            verify(productRepository, never()).increaseQuantities(anyMap(), any(User.class));
+            verify(productRepository, never()).decreaseQuantities(anyMap(), any(User.class));
             verify(orderRepository, times(1)).save(order);
         }
 
@@ -421,8 +575,8 @@ class OrderServiceTest {
             var exception = assertThatThrownBy(() -> orderService.updateOrder(1L, updatedOrder, user));
             // then
             exception.isInstanceOf(OrderNotFoundException.class);
-            assertThat(productA.getQuantity()).isEqualTo(5);
-            assertThat(productB.getQuantity()).isEqualTo(12);
+            verify(productRepository, never()).increaseQuantities(anyMap(), any(User.class));
+            verify(productRepository, never()).decreaseQuantities(anyMap(), any(User.class));
             verify(orderRepository, never()).save(any(Order.class));
         }
 
@@ -441,8 +595,8 @@ class OrderServiceTest {
             var exception = assertThatThrownBy(() -> orderService.updateOrder(1L, updatedOrder, user));
             // then
             exception.isInstanceOf(InvalidCustomerException.class);
-            assertThat(productA.getQuantity()).isEqualTo(5);
-            assertThat(productB.getQuantity()).isEqualTo(12);
+            verify(productRepository, never()).increaseQuantities(anyMap(), any(User.class));
+            verify(productRepository, never()).decreaseQuantities(anyMap(), any(User.class));
             verify(orderRepository, never()).save(any(Order.class));
         }
 
@@ -457,7 +611,7 @@ class OrderServiceTest {
                     .build();
             when(orderRepository.findByIdAndOwner(1L, user)).thenReturn(Optional.of(order));
             when(customerRepository.existsByIdAndOwner(2L, user)).thenReturn(true);
-            when(productRepository.findByIdAndOwner(1L, user)).thenReturn(Optional.empty());
+            when(productRepository.findAllByIdInAndOwner(Set.of(1L, 2L), user)).thenReturn(List.of(productB));
             // when
             var exception = assertThatThrownBy(() -> orderService.updateOrder(1L, updatedOrder, user));
             // then
@@ -476,12 +630,12 @@ class OrderServiceTest {
                     .build();
             when(orderRepository.findByIdAndOwner(1L, user)).thenReturn(Optional.of(order));
             when(customerRepository.existsByIdAndOwner(2L, user)).thenReturn(true);
-            when(productRepository.findByIdAndOwner(1L, user)).thenReturn(Optional.of(productA));
+            when(productRepository.findAllByIdInAndOwner(Set.of(1L, 2L), user)).thenReturn(List.of(productA, productB));
+            when(productRepository.decreaseQuantities(Map.of(1L, 95, 2L, 92), user)).thenReturn(1);
+            // when
             var exception = assertThatThrownBy(() -> orderService.updateOrder(1L, updatedOrder, user));
             // then
             exception.isInstanceOf(ProductWithInsufficientStockException.class);
-            assertThat(productA.getQuantity()).isEqualTo(5);
-            assertThat(productB.getQuantity()).isEqualTo(12);
             verify(orderRepository, never()).save(any(Order.class));
         }
 
@@ -508,14 +662,12 @@ class OrderServiceTest {
         void deleteUnpaidOrderResetProductStock() {
             // given
             when(orderRepository.findByIdAndOwner(1L, user)).thenReturn(Optional.of(order));
-            when(productRepository.findByIdAndOwner(1L, user)).thenReturn(Optional.of(productA));
-            when(productRepository.findByIdAndOwner(2L, user)).thenReturn(Optional.of(productB));
             // when
             orderService.deleteOrder(1L, user);
             // then
-            assertThat(productA.getQuantity()).isEqualTo(10);
-            assertThat(productB.getQuantity()).isEqualTo(20);
+            verify(productRepository, times(1)).increaseQuantities(Map.of(1L, 5, 2L, 8), user);
             verify(orderRepository, times(1)).delete(order);
+            verify(orderDocumentGenerator, times(1)).evictOrderDocument(1L);
         }
 
         @Test
@@ -526,8 +678,7 @@ class OrderServiceTest {
             // when
             orderService.deleteOrder(1L, user);
             // then
-            assertThat(productA.getQuantity()).isEqualTo(5);
-            assertThat(productB.getQuantity()).isEqualTo(12);
+            verify(productRepository, never()).increaseQuantities(anyMap(), any(User.class));
             verify(productRepository, never()).deleteById(anyLong());
             verify(orderRepository, times(1)).delete(order);
         }
@@ -542,6 +693,7 @@ class OrderServiceTest {
             exception.isInstanceOf(OrderNotFoundException.class);
             verify(productRepository, never()).findById(anyLong());
             verify(orderRepository, never()).delete(any(Order.class));
+            verify(orderDocumentGenerator, never()).evictOrderDocument(anyLong());
         }
 
     }
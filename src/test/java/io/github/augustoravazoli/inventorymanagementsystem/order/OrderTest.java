@@ -35,4 +35,18 @@ class OrderTest {
         assertThat(quantity).isEqualTo(6);
     }
 
+    @Test
+    void calculateTotals() {
+        // given
+        var order = new OrderBuilder()
+                .item(2, new Product(null, null, null, "20"))
+                .item(4, new Product(null, null, null, "10"))
+                .build();
+        // when
+        order.calculateTotals();
+        // then
+        assertThat(order.getTotalQuantity()).isEqualTo(6);
+        assertThat(order.getTotalAmount()).isEqualTo(new BigDecimal("80"));
+    }
+
 }
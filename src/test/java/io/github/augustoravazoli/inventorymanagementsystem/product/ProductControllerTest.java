@@ -2,31 +2,38 @@ package io.github.augustoravazoli.inventorymanagementsystem.product;
 
 import io.github.augustoravazoli.inventorymanagementsystem.MockUserDetailsService;
 import io.github.augustoravazoli.inventorymanagementsystem.category.Category;
+import io.github.augustoravazoli.inventorymanagementsystem.category.CategoryOption;
 import io.github.augustoravazoli.inventorymanagementsystem.category.CategoryService;
 import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Count;
+import io.github.augustoravazoli.inventorymanagementsystem.util.CsvConversionException;
+import io.github.augustoravazoli.inventorymanagementsystem.util.CsvConverter;
+import io.github.augustoravazoli.inventorymanagementsystem.util.CursorSlice;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.mock.web.MockMultipartFile;
 
 import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static io.github.augustoravazoli.inventorymanagementsystem.category.CategoryMatchers.category;
 import static io.github.augustoravazoli.inventorymanagementsystem.product.ProductMatchers.product;
+import static io.github.augustoravazoli.inventorymanagementsystem.product.ProductMatchers.productSummary;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -41,13 +48,16 @@ class ProductControllerTest {
     @MockBean
     private CategoryService categoryService;
 
+    @MockBean
+    private CsvConverter csvConverter;
+
     @Autowired
     private MockMvc client;
 
-    private final List<Category> categories = List.of(
-            new Category(1L, "A"),
-            new Category(2L, "B"),
-            new Category(3L, "C")
+    private final List<CategoryOption> categories = List.of(
+            new CategoryOption(1L, "A"),
+            new CategoryOption(2L, "B"),
+            new CategoryOption(3L, "C")
     );
 
     @Nested
@@ -91,6 +101,24 @@ class ProductControllerTest {
             verify(productService, times(1)).createProduct(any(Product.class), any(User.class));
         }
 
+        @Test
+        void createProductIgnoringCategoryName() throws Exception {
+            // when
+            var result = client.perform(post("/products/create")
+                    .param("name", "A")
+                    .param("categoryName", "A")
+                    .param("quantity", "1")
+                    .param("price", "1.00")
+                    .with(csrf())
+            );
+            // then
+            result.andExpectAll(
+                    status().isFound(),
+                    redirectedUrl("/products/list")
+            );
+            verify(productService, times(1)).createProduct(argThat(product -> product.getCategory() == null), any(User.class));
+        }
+
         @Test
         void doNotCreateProductWithNameTaken() throws Exception {
             // given
@@ -136,6 +164,67 @@ class ProductControllerTest {
 
     }
 
+    @Nested
+    class CreateAllProductsTests {
+
+        @Test
+        void createAllProducts() throws Exception {
+            // given
+            when(csvConverter.convertInChunks(any(MultipartFile.class), any())).thenReturn(Stream.empty());
+            var file = new MockMultipartFile("products", "products.csv", "text/csv", "".getBytes());
+            // when
+            var result = client.perform(multipart("/products/create-all")
+                    .file(file)
+                    .with(csrf())
+            );
+            // then
+            result.andExpectAll(
+                    status().isFound(),
+                    redirectedUrl("/products/list")
+            );
+            verify(productService, times(1)).createAllProducts(any(), any(User.class));
+        }
+
+        @Test
+        void doNotCreateAllProductsWithInvalidProductsFile() throws Exception {
+            // given
+            doThrow(CsvConversionException.class).when(csvConverter).convertInChunks(any(MultipartFile.class), any());
+            var file = new MockMultipartFile("products", "products.csv", "text/csv", "".getBytes());
+            // when
+            var result = client.perform(multipart("/products/create-all")
+                    .file(file)
+                    .with(csrf())
+            );
+            // then
+            result.andExpectAll(
+                    status().isFound(),
+                    flash().attribute("mappingError", true),
+                    redirectedUrl("/products/list")
+            );
+            verify(productService, never()).createAllProducts(any(), any(User.class));
+        }
+
+        @Test
+        void doNotCreateAllProductsWithNonexistentCategory() throws Exception {
+            // given
+            when(csvConverter.convertInChunks(any(MultipartFile.class), any())).thenReturn(Stream.empty());
+            doThrow(InvalidCategoryException.class).when(productService).createAllProducts(any(), any(User.class));
+            var file = new MockMultipartFile("products", "products.csv", "text/csv", "".getBytes());
+            // when
+            var result = client.perform(multipart("/products/create-all")
+                    .file(file)
+                    .with(csrf())
+            );
+            // then
+            result.andExpectAll(
+                    status().isFound(),
+                    flash().attribute("mappingError", true),
+                    redirectedUrl("/products/list")
+            );
+        }
+
+    }
+
     @Nested
     class ListProductsTests {
 
@@ -143,27 +232,33 @@ class ProductControllerTest {
         void listProducts() throws Exception {
             // given
             var products = List.of(
-                    new Product("A", new Category("A"), 1, "1.00"),
-                    new Product("B", new Category("B"), 2, "2.00"),
-                    new Product("C", new Category("C"), 3, "3.00")
+                    new ProductSummary(1L, "A", "A", 1, new BigDecimal("1.00")),
+                    new ProductSummary(2L, "B", "B", 2, new BigDecimal("2.00")),
+                    new ProductSummary(3L, "C", "C", 3, new BigDecimal("3.00"))
             );
-            var pageable = PageRequest.of(0, 8, Sort.by("name"));
-            when(productService.listProducts(anyInt(), any(User.class))).thenReturn(new PageImpl<>(products, pageable, 3));
+            when(productService.listProducts(anyString(), isNull(), any(User.class))).thenReturn(new CursorSlice<>(products, "previous", "next"));
+            when(productService.countProductPages(any(User.class))).thenReturn(new Count(5, true));
             // when
-            var result = client.perform(get("/products/list"));
+            var result = client.perform(get("/products/list")
+                    .param("page", "2")
+                    .param("after", "cursor")
+            );
             // then
             result.andExpectAll(
                     status().isOk(),
                     model().attribute("products", contains(
-                            product("A", "A", 1, "1.00"),
-                            product("B", "B", 2, "2.00"),
-                            product("C", "C", 3, "3.00")
+                            productSummary("A", "A", 1, "1.00"),
+                            productSummary("B", "B", 2, "2.00"),
+                            productSummary("C", "C", 3, "3.00")
                     )),
-                    model().attribute("currentPage", 1),
-                    model().attribute("totalPages", 1),
+                    model().attribute("currentPage", 2),
+                    model().attribute("previousCursor", "previous"),
+                    model().attribute("nextCursor", "next"),
+                    model().attribute("totalPages", new Count(5, true)),
                     view().name("product/product-table")
             );
-            verify(productService, times(1)).listProducts(anyInt(), any(User.class));
+            verify(productService, times(1)).listProducts(eq("cursor"), isNull(), any(User.class));
+            verify(productService, times(1)).countProductPages(any(User.class));
         }
 
     }
@@ -175,8 +270,8 @@ class ProductControllerTest {
         void findProducts() throws Exception {
             // given
             var products = List.of(
-                    new Product("A", new Category("A"), 1, "1.00"),
-                    new Product("Aa", new Category("Aa"), 2, "2.00")
+                    new ProductSummary(1L, "A", "A", 1, new BigDecimal("1.00")),
+                    new ProductSummary(2L, "Aa", "Aa", 2, new BigDecimal("2.00"))
             );
             when(productService.findProducts(anyString(), any(User.class))).thenReturn(products);
             // when
@@ -187,8 +282,8 @@ class ProductControllerTest {
             result.andExpectAll(
                     status().isOk(),
                     model().attribute("products", contains(
-                            product("A", "A", 1, "1.00"),
-                            product("Aa", "Aa", 2, "2.00")
+                            productSummary("A", "A", 1, "1.00"),
+                            productSummary("Aa", "Aa", 2, "2.00")
                     )),
                     view().name("product/product-table")
             );
@@ -197,6 +292,35 @@ class ProductControllerTest {
 
     }
 
+    @Nested
+    class FindProductOptionsTests {
+
+        @Test
+        void findProductOptions() throws Exception {
+            // given
+            var options = List.of(
+                    new ProductOption(1L, "A", new BigDecimal("1.00")),
+                    new ProductOption(2L, "Ab", new BigDecimal("2.00"))
+            );
+            when(productService.findProductOptions(anyString(), any(User.class))).thenReturn(options);
+            // when
+            var result = client.perform(get("/products/options")
+                    .param("name", "a")
+            );
+            // then
+            result.andExpectAll(
+                    status().isOk(),
+                    jsonPath("$", hasSize(2)),
+                    jsonPath("$[0].id").value(1),
+                    jsonPath("$[0].name").value("A"),
+                    jsonPath("$[0].price").value(1.00),
+                    jsonPath("$[1].id").value(2)
+            );
+            verify(productService, times(1)).findProductOptions(eq("a"), any(User.class));
+        }
+
+    }
+
     @Nested
     class UpdateProductTests {
 
@@ -5,6 +5,9 @@ import io.github.augustoravazoli.inventorymanagementsystem.category.Category;
 import io.github.augustoravazoli.inventorymanagementsystem.category.CategoryRepository;
 import io.github.augustoravazoli.inventorymanagementsystem.user.User;
 import io.github.augustoravazoli.inventorymanagementsystem.user.UserRepository;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Count;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -13,6 +16,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.TestExecutionEvent;
 import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.context.ActiveProfiles;
@@ -20,11 +26,16 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.stream.IntStream;
 
+import static io.github.augustoravazoli.inventorymanagementsystem.product.ProductMatchers.productSummary;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -47,6 +58,9 @@ class ProductEndpointsTests {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private List<Category> categories;
 
     private Category categoryA;
@@ -90,8 +104,57 @@ class ProductEndpointsTests {
             );
             var productOptional = productRepository.findByNameAndOwner("A", user);
             assertThat(productOptional).get()
-                    .extracting("name", "category.name", "quantity", "price", "owner.email")
-                    .containsExactly("A", "A", 1, new BigDecimal("1.00"), "user@email.com");
+                    .extracting("name", "category.name", "quantity", "price", "owner.id")
+                    .containsExactly("A", "A", 1, new BigDecimal("1.00"), user.getId());
+        }
+
+    }
+
+    @Nested
+    class CreateAllProductsTests {
+
+        @Test
+        void createAllProducts() throws Exception {
+            // given
+            productRepository.save(new Product("A", categoryA, 1, "1.00", user));
+            var csv = "name;category;quantity;price\nA;;5;2.00\nD;B;3;3.00\nE;;4;4.00";
+            var file = new MockMultipartFile("products", "products.csv", "text/csv", csv.getBytes());
+            // when
+            var result = client.perform(multipart("/products/create-all")
+                    .file(file)
+                    .with(csrf())
+            );
+            // then
+            result.andExpectAll(
+                    status().isFound(),
+                    redirectedUrl("/products/list")
+            );
+            assertThat(productRepository.findAll(Sort.by("name")))
+                    .extracting("name", "category.name", "quantity", "price", "owner.id")
+                    .containsExactly(
+                            tuple("A", "A", 5, new BigDecimal("2.00"), user.getId()),
+                            tuple("D", "B", 3, new BigDecimal("3.00"), user.getId()),
+                            tuple("E", null, 4, new BigDecimal("4.00"), user.getId())
+                    );
+        }
+
+        @Test
+        void doNotCreateAllProductsWithNonexistentCategory() throws Exception {
+            // given
+            var csv = "name;category;quantity;price\nA;Z;5;2.00";
+            var file = new MockMultipartFile("products", "products.csv", "text/csv", csv.getBytes());
+            // when
+            var result = client.perform(multipart("/products/create-all")
+                    .file(file)
+                    .with(csrf())
+            );
+            // then
+            result.andExpectAll(
+                    status().isFound(),
+                    flash().attribute("mappingError", true),
+                    redirectedUrl("/products/list")
+            );
+            assertThat(productRepository.count()).isZero();
         }
 
     }
@@ -117,6 +180,88 @@ class ProductEndpointsTests {
             );
         }
 
+        @Test
+        void listProductsWithAndWithoutCategory() throws Exception {
+            // given
+            productRepository.saveAll(List.of(
+                    new Product("A", categoryA, 1, "1.00", user),
+                    new Product("B", null, 2, "2.00", user)
+            ));
+            // when
+            var result = client.perform(get("/products/list"));
+            // then
+            result.andExpectAll(
+                    status().isOk(),
+                    model().attribute("products", contains(
+                            productSummary("A", "A", 1, "1.00"),
+                            productSummary("B", null, 2, "2.00")
+                    )),
+                    view().name("product/product-table")
+            );
+        }
+
+        @Test
+        void listProductSummariesInSingleStatement() {
+            // given
+            productRepository.saveAll(List.of(
+                    new Product("A", categoryA, 1, "1.00", user),
+                    new Product("B", categoryB, 2, "2.00", user),
+                    new Product("C", categoryC, 3, "3.00", user)
+            ));
+            var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+            // when
+            var products = productRepository.findSummariesByOwner(user, PageRequest.ofSize(8));
+            // then
+            assertThat(products.getContent()).extracting("name", "categoryName")
+                    .containsExactly(tuple("A", "A"), tuple("B", "B"), tuple("C", "C"));
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        }
+
+        @Test
+        void listProductsUsingCursors() throws Exception {
+            // given
+            productRepository.saveAll(IntStream.rangeClosed(1, 10)
+                    .mapToObj(i -> new Product("product" + (char) ('A' + i), categoryA, i, "1.00", user))
+                    .toList()
+            );
+            // when
+            var firstPage = client.perform(get("/products/list")).andReturn().getModelAndView().getModel();
+            var secondPage = client.perform(get("/products/list")
+                    .param("page", "2")
+                    .param("after", (String) firstPage.get("nextCursor"))
+            ).andReturn().getModelAndView().getModel();
+            var previousPage = client.perform(get("/products/list")
+                    .param("page", "1")
+                    .param("before", (String) secondPage.get("previousCursor"))
+            ).andReturn().getModelAndView().getModel();
+            // then
+            assertThat(firstPage.get("products")).asList().hasSize(8);
+            assertThat(firstPage.get("previousCursor")).isNull();
+            assertThat(firstPage.get("totalPages")).isEqualTo(new Count(2, true));
+            assertThat(secondPage.get("products")).asList().hasSize(2).extracting("name").containsExactly("productJ", "productK");
+            assertThat(secondPage.get("nextCursor")).isNull();
+            assertThat(previousPage.get("products")).usingRecursiveComparison().isEqualTo(firstPage.get("products"));
+            assertThat(previousPage.get("previousCursor")).isNull();
+        }
+
+        @Test
+        void findOnlyProductsOfAuthenticatedOwner() {
+            // given
+            var otherUser = userRepository.save(new User("other", "other@email.com", "$2a$10$gYCEDfFbidA3IInCfzcXdugclrYR/6FbQuogN7Ixc3ohWi90MEXiO"));
+            var otherProduct = productRepository.save(new Product("B", null, 1, "1.00", otherUser));
+            productRepository.save(new Product("A", categoryA, 1, "1.00", user));
+            try {
+                // when
+                var products = productRepository.findAll();
+                // then
+                assertThat(products).extracting("name").containsExactly("A");
+            } finally {
+                productRepository.delete(otherProduct);
+                userRepository.delete(otherUser);
+            }
+        }
+
     }
 
     @Nested
@@ -141,11 +286,111 @@ class ProductEndpointsTests {
             );
         }
 
+        @Test
+        void findProductsWithTypo() throws Exception {
+            // given
+            productRepository.saveAll(List.of(
+                    new Product("Keyboard", categoryA, 1, "1.00", user),
+                    new Product("Monitor", categoryA, 2, "2.00", user)
+            ));
+            // when
+            var result = client.perform(get("/products/find")
+                    .param("name", "keybord")
+            );
+            // then
+            result.andExpectAll(
+                    status().isOk(),
+                    model().attribute("products", hasSize(1)),
+                    view().name("product/product-table")
+            );
+        }
+
+        @Test
+        void findProductsContainingWildcard() throws Exception {
+            // given
+            productRepository.saveAll(List.of(
+                    new Product("100% Cotton", categoryA, 1, "1.00", user),
+                    new Product("Wool", categoryA, 2, "2.00", user)
+            ));
+            // when
+            var result = client.perform(get("/products/find")
+                    .param("name", "%")
+            );
+            // then
+            result.andExpectAll(
+                    status().isOk(),
+                    model().attribute("products", hasSize(1)),
+                    view().name("product/product-table")
+            );
+        }
+
+    }
+
+    @Nested
+    class FindProductOptionsTests {
+
+        @Test
+        void findProductOptions() throws Exception {
+            // given
+            productRepository.saveAll(List.of(
+                    new Product("Keypad", categoryA, 1, "1.00", user),
+                    new Product("Keyboard", categoryA, 2, "2.00", user),
+                    new Product("Monkey", categoryA, 3, "3.00", user)
+            ));
+            // when
+            var result = client.perform(get("/products/options")
+                    .param("name", "key")
+            );
+            // then
+            result.andExpectAll(
+                    status().isOk(),
+                    jsonPath("$", hasSize(2)),
+                    jsonPath("$[0].name").value("Keyboard"),
+                    jsonPath("$[0].price").value(2.00),
+                    jsonPath("$[1].name").value("Keypad")
+            );
+        }
+
+        @Test
+        void findProductOptionsEscapingWildcards() throws Exception {
+            // given
+            productRepository.saveAll(List.of(
+                    new Product("key_ring", categoryA, 1, "1.00", user),
+                    new Product("keyring", categoryA, 2, "2.00", user)
+            ));
+            // when
+            var result = client.perform(get("/products/options")
+                    .param("name", "key_")
+            );
+            // then
+            result.andExpectAll(
+                    status().isOk(),
+                    jsonPath("$", hasSize(1)),
+                    jsonPath("$[0].name").value("key_ring")
+            );
+        }
+
     }
 
     @Nested
     class UpdateProductTests {
 
+        @Test
+        void findProductFromSecondLevelCache() throws Exception {
+            // given
+            var id = productRepository.save(new Product("A", categoryA, 1, "1.00", user)).getId();
+            var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            client.perform(get("/products/update/{id}", id));
+            var queryCacheHits = statistics.getQueryCacheHitCount();
+            var secondLevelCacheHits = statistics.getSecondLevelCacheHitCount();
+            // when
+            var result = client.perform(get("/products/update/{id}", id));
+            // then
+            result.andExpect(status().isOk());
+            assertThat(statistics.getQueryCacheHitCount()).isGreaterThan(queryCacheHits);
+            assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThan(secondLevelCacheHits);
+        }
+
         @Test
         void updateProduct() throws Exception {
             // given
@@ -165,9 +410,8 @@ class ProductEndpointsTests {
             );
             var optionalProduct = productRepository.findById(id);
             assertThat(optionalProduct).get()
-                    .extracting("name", "category", "quantity", "price", "owner.email")
-                    .usingRecursiveFieldByFieldElementComparatorOnFields("category")
-                    .containsExactly("B", categoryB, 1, new BigDecimal("2.00"), "user@email.com");
+                    .extracting("name", "category.id", "quantity", "price", "owner.id")
+                    .containsExactly("B", categoryB.getId(), 1, new BigDecimal("2.00"), user.getId());
         }
 
     }
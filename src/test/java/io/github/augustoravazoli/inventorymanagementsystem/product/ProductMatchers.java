@@ -19,10 +19,10 @@ public class ProductMatchers {
         );
     }
 
-    public static Matcher<Product> product(String name, String category, Integer quantity, String price) {
+    public static Matcher<ProductSummary> productSummary(String name, String category, Integer quantity, String price) {
         return allOf(
                 hasProperty("name", is(name)),
-                hasProperty("category", hasProperty("name", is(category))),
+                hasProperty("categoryName", is(category)),
                 hasProperty("quantity", is(quantity)),
                 hasProperty("price", is(new BigDecimal(price)))
         );
@@ -37,6 +37,14 @@ public class ProductMatchers {
         );
     }
 
+    public static Matcher<ProductOption> productOption(Long id, String name, String price) {
+        return allOf(
+                hasProperty("id", is(id)),
+                hasProperty("name", is(name)),
+                hasProperty("price", is(new BigDecimal(price)))
+        );
+    }
+
     public static Matcher<Product> product() {
         return allOf(
                 hasProperty("name", nullValue()),
@@ -1,22 +1,28 @@
 package io.github.augustoravazoli.inventorymanagementsystem.product;
 
 import io.github.augustoravazoli.inventorymanagementsystem.category.Category;
+import io.github.augustoravazoli.inventorymanagementsystem.category.CategoryOption;
 import io.github.augustoravazoli.inventorymanagementsystem.category.CategoryRepository;
 import io.github.augustoravazoli.inventorymanagementsystem.order.OrderRepository;
 import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Count;
+import io.github.augustoravazoli.inventorymanagementsystem.util.Cursor;
+import io.github.augustoravazoli.inventorymanagementsystem.util.InvalidCursorException;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -82,38 +88,182 @@ class ProductServiceTest {
 
     }
 
+    @Nested
+    class CreateAllProductsTests {
+
+        @Test
+        void createAllProducts() {
+            // given
+            var products = List.of(
+                    new Product("A", new Category("A"), 1, "1.00"),
+                    new Product("B", null, 2, "2.00")
+            );
+            when(categoryRepository.findOptionsByNameInAndOwner(Set.of("A"), user)).thenReturn(List.of(new CategoryOption(1L, "A")));
+            // when
+            productService.createAllProducts(Stream.of(products), user);
+            // then
+            assertThat(products).extracting("owner").containsExactly(user, user);
+            assertThat(products.getFirst().getCategory().getId()).isEqualTo(1L);
+            verify(productRepository, times(1)).insertAll(products);
+            verify(orderRepository, never()).updateUnpaidOrderAmountsByProductIdIn(anyCollection());
+        }
+
+        @Test
+        void updatePriceAndQuantityOfExistingProducts() {
+            // given
+            var existingProduct = new Product(1L, "A", new Category(1L, "A"), 1, new BigDecimal("1.00"));
+            var product = new Product("A", null, 5, "2.00");
+            when(productRepository.findAllByNameInAndOwner(Set.of("A"), user)).thenReturn(List.of(existingProduct));
+            // when
+            productService.createAllProducts(Stream.of(List.of(product)), user);
+            // then
+            assertThat(existingProduct).extracting("name", "quantity", "price").containsExactly("A", 5, new BigDecimal("2.00"));
+            verify(productRepository, times(1)).insertAll(List.of());
+            verify(orderRepository, times(1)).updateUnpaidOrderAmountsByProductIdIn(List.of(1L));
+        }
+
+        @Test
+        void doNotCreateAllProductsWithNonexistentCategory() {
+            // given
+            var products = List.of(new Product("A", new Category("A"), 1, "1.00"));
+            when(categoryRepository.findOptionsByNameInAndOwner(Set.of("A"), user)).thenReturn(List.of());
+            // when
+            var exception = assertThatThrownBy(() -> productService.createAllProducts(Stream.of(products), user));
+            // then
+            exception.isInstanceOf(InvalidCategoryException.class);
+            verify(productRepository, never()).insertAll(anyCollection());
+        }
+
+    }
+
     @Nested
     class ListProductsTests {
 
-        private final List<Product> products = List.of(
-                new Product("A", new Category("A"), 1, "1.00"),
-                new Product("B", new Category("B"), 2, "2.00"),
-                new Product("C", new Category("C"), 3, "3.00")
+        private final List<ProductSummary> products = List.of(
+                new ProductSummary(1L, "A", "A", 1, new BigDecimal("1.00")),
+                new ProductSummary(2L, "B", "B", 2, new BigDecimal("2.00")),
+                new ProductSummary(3L, "C", null, 3, new BigDecimal("3.00"))
         );
 
+        @Test
+        void countProductPages() {
+            // given
+            var owner = new User(1L, "user", "user@email.com", "password");
+            when(productRepository.countByOwner(1L, 1000)).thenReturn(17L);
+            // when
+            var pages = productService.countProductPages(owner);
+            // then
+            assertThat(pages).isEqualTo(new Count(3, true));
+        }
+
+        @Test
+        void countProductPagesApproximately() {
+            // given
+            var owner = new User(1L, "user", "user@email.com", "password");
+            when(productRepository.countByOwner(1L, 1000)).thenReturn(5000L);
+            // when
+            var pages = productService.countProductPages(owner);
+            // then
+            assertThat(pages).isEqualTo(new Count(625, false));
+        }
+
         @Test
         void listProductsPaginated() {
             // given
-            var pageable = PageRequest.of(0, 8, Sort.by("name"));
-            var expectedProductPage = new PageImpl<>(products, pageable, 3);
-            when(productRepository.findAllByOwner(user, pageable)).thenReturn(expectedProductPage);
+            var pageable = PageRequest.ofSize(8);
+            when(productRepository.findSummariesByOwner(user, pageable)).thenReturn(new SliceImpl<>(products, pageable, true));
             // when
-            var actualProductPage = productService.listProducts(1, user);
+            var actualProductSlice = productService.listProducts(null, null, user);
             // then
-            assertThat(actualProductPage.getContent()).extracting("name").isSorted();
-            assertThat(actualProductPage).usingRecursiveComparison().isEqualTo(expectedProductPage);
+            assertThat(actualProductSlice.content()).extracting("name").isSorted();
+            assertThat(actualProductSlice.content()).usingRecursiveComparison().isEqualTo(products);
+            assertThat(actualProductSlice.previousCursor()).isNull();
+            assertThat(actualProductSlice.nextCursor()).isEqualTo(new Cursor("C", 3L).encode());
         }
 
         @Test
-        void listProducts() {
+        void listProductsAfterCursor() {
             // given
-            var expectedProducts = products;
-            when(productRepository.findAllByOwner(user, Sort.by("name"))).thenReturn(expectedProducts);
+            var pageable = PageRequest.ofSize(8);
+            when(productRepository.findSummariesByOwnerAfter(user, "0", 10L, pageable)).thenReturn(new SliceImpl<>(products, pageable, false));
             // when
-            var actualProducts = productService.listProducts(user);
+            var actualProductSlice = productService.listProducts(new Cursor("0", 10L).encode(), null, user);
             // then
-            assertThat(actualProducts).extracting("name").isSorted();
-            assertThat(actualProducts).usingRecursiveComparison().isEqualTo(expectedProducts);
+            assertThat(actualProductSlice.content()).usingRecursiveComparison().isEqualTo(products);
+            assertThat(actualProductSlice.previousCursor()).isEqualTo(new Cursor("A", 1L).encode());
+            assertThat(actualProductSlice.nextCursor()).isNull();
+        }
+
+        @Test
+        void listProductsBeforeCursor() {
+            // given
+            var pageable = PageRequest.ofSize(8);
+            when(productRepository.findSummariesByOwnerBefore(user, "D", 4L, pageable)).thenReturn(new SliceImpl<>(products.reversed(), pageable, false));
+            // when
+            var actualProductSlice = productService.listProducts(null, new Cursor("D", 4L).encode(), user);
+            // then
+            assertThat(actualProductSlice.content()).usingRecursiveComparison().isEqualTo(products);
+            assertThat(actualProductSlice.previousCursor()).isNull();
+            assertThat(actualProductSlice.nextCursor()).isEqualTo(new Cursor("C", 3L).encode());
+        }
+
+        @Test
+        void doNotListProductsWithInvalidCursor() {
+            // when
+            var exception = assertThatThrownBy(() -> productService.listProducts("invalid", null, user));
+            // then
+            exception.isInstanceOf(InvalidCursorException.class);
+        }
+
+    }
+
+    @Nested
+    class FindProductOptionsTests {
+
+        @Test
+        void findProductOptionsByName() {
+            // given
+            var expectedOptions = List.of(
+                    new ProductOption(1L, "A", new BigDecimal("1.00")),
+                    new ProductOption(2L, "Ab", new BigDecimal("2.00"))
+            );
+            when(productRepository.findOptionsByNameStartingWithAndOwner("a%", user, PageRequest.ofSize(10))).thenReturn(expectedOptions);
+            // when
+            var actualOptions = productService.findProductOptions("a", user);
+            // then
+            assertThat(actualOptions).usingRecursiveComparison().isEqualTo(expectedOptions);
+        }
+
+        @Test
+        void findNoProductOptionsWithBlankName() {
+            // when
+            var actualOptions = productService.findProductOptions(" ", user);
+            // then
+            assertThat(actualOptions).isEmpty();
+            verify(productRepository, never()).findOptionsByNameStartingWithAndOwner(anyString(), any(User.class), any(Pageable.class));
+        }
+
+        @Test
+        void findProductOptionsByIds() {
+            // given
+            var expectedOptions = List.of(
+                    new ProductOption(1L, "A", new BigDecimal("1.00")),
+                    new ProductOption(2L, "Ab", new BigDecimal("2.00"))
+            );
+            when(productRepository.findOptionsByIdInAndOwner(List.of(1L, 2L), user)).thenReturn(expectedOptions);
+            // when
+            var actualOptions = productService.findProductOptions(List.of(1L, 2L), user);
+            // then
+            assertThat(actualOptions).usingRecursiveComparison().isEqualTo(expectedOptions);
+        }
+
+        @Test
+        void findNoProductOptionsWithoutIds() {
+            // when
+            var actualOptions = productService.findProductOptions(List.of(), user);
+            // then
+            assertThat(actualOptions).isEmpty();
+            verify(productRepository, never()).findOptionsByIdInAndOwner(anyCollection(), any(User.class));
         }
 
     }
@@ -125,17 +275,28 @@ class ProductServiceTest {
         void findProducts() {
             // given
             var expectedProducts = List.of(
-                    new Product("A", new Category("A"), 1, "1.00"),
-                    new Product("Aa", new Category("Aa"), 2, "2.00")
+                    new ProductSummary(2L, "A", "A", 1, new BigDecimal("1.00")),
+                    new ProductSummary(1L, "Aa", "Aa", 2, new BigDecimal("2.00"))
             );
-            when(productRepository.findAllByNameContainingIgnoreCaseAndOwner("A", user)).thenReturn(expectedProducts);
+            when(productRepository.searchIdsByNameAndOwner("A", "%A%", user, 50)).thenReturn(List.of(2L, 1L));
+            when(productRepository.findSummariesByIdInAndOwner(List.of(2L, 1L), user)).thenReturn(expectedProducts.reversed());
             // when
             var actualProducts = productService.findProducts("A", user);
             // then
-            assertThat(actualProducts).extracting("name").isSorted();
             assertThat(actualProducts).usingRecursiveComparison().isEqualTo(expectedProducts);
         }
 
+        @Test
+        void findNoProductsWhenNoneMatches() {
+            // given
+            when(productRepository.searchIdsByNameAndOwner("A", "%A%", user, 50)).thenReturn(List.of());
+            // when
+            var actualProducts = productService.findProducts("A", user);
+            // then
+            assertThat(actualProducts).isEmpty();
+            verify(productRepository, never()).findSummariesByIdInAndOwner(anyCollection(), any(User.class));
+        }
+
     }
 
     @Nested
@@ -182,6 +343,23 @@ class ProductServiceTest {
             assertThat(product).usingRecursiveComparison().ignoringFields("owner").isEqualTo(updatedProduct);
             assertThat(product.getOwner()).isEqualTo(user);
             verify(productRepository, times(1)).save(product);
+            verify(orderRepository, times(1)).updateUnpaidOrderAmountsByProductIdIn(List.of(1L));
+        }
+
+        @Test
+        void updateProductWithSamePriceDoesNotUpdateOrderAmounts() {
+            // given
+            var product = new Product("A", new Category("A"), 1,"1.00");
+            product.setOwner(user);
+            var updatedProduct = new Product("B", new Category(2L, "B"), 2, "1.00");
+            when(productRepository.findByIdAndOwner(1L, user)).thenReturn(Optional.of(product));
+            when(productRepository.existsByNameAndOwner("B", user)).thenReturn(false);
+            when(categoryRepository.existsByIdAndOwner(2L, user)).thenReturn(true);
+            // when
+            productService.updateProduct(1L, updatedProduct, user);
+            // then
+            verify(productRepository, times(1)).save(product);
+            verify(orderRepository, never()).updateUnpaidOrderAmountsByProductIdIn(anyCollection());
         }
 
         @Test
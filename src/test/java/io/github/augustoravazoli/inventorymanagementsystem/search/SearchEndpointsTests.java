@@ -0,0 +1,140 @@
+package io.github.augustoravazoli.inventorymanagementsystem.search;
+
+import io.github.augustoravazoli.inventorymanagementsystem.TestApplication;
+import io.github.augustoravazoli.inventorymanagementsystem.category.Category;
+import io.github.augustoravazoli.inventorymanagementsystem.category.CategoryRepository;
+import io.github.augustoravazoli.inventorymanagementsystem.customer.Customer;
+import io.github.augustoravazoli.inventorymanagementsystem.customer.CustomerRepository;
+import io.github.augustoravazoli.inventorymanagementsystem.order.OrderBuilder;
+import io.github.augustoravazoli.inventorymanagementsystem.order.OrderRepository;
+import io.github.augustoravazoli.inventorymanagementsystem.order.OrderStatus;
+import io.github.augustoravazoli.inventorymanagementsystem.product.Product;
+import io.github.augustoravazoli.inventorymanagementsystem.product.ProductRepository;
+import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+import io.github.augustoravazoli.inventorymanagementsystem.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.TestExecutionEvent;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@Import(TestApplication.class)
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@WithUserDetails(value = "user@email.com", setupBefore = TestExecutionEvent.TEST_EXECUTION)
+class SearchEndpointsTests {
+
+    @Autowired
+    private MockMvc client;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setup() {
+        var user = userRepository.save(new User("user", "user@email.com", "$2a$10$gYCEDfFbidA3IInCfzcXdugclrYR/6FbQuogN7Ixc3ohWi90MEXiO"));
+        var category = categoryRepository.save(new Category("Blue items", user));
+        var product = productRepository.save(new Product("Blue pen", category, 10, "1.00", user));
+        productRepository.save(new Product("Red pen", category, 10, "1.00", user));
+        var customer = customerRepository.save(new Customer("Bluebird", "Blue Street", "5551234", user));
+        orderRepository.save(new OrderBuilder()
+                .status(OrderStatus.UNPAID)
+                .customer(customer)
+                .item(1, product)
+                .owner(user)
+                .build()
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        customerRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void search() throws Exception {
+        // when
+        var result = client.perform(get("/search")
+                .param("query", "blue")
+        );
+        // then
+        result.andExpectAll(
+                status().isOk(),
+                model().attribute("results", hasSize(3)),
+                model().attribute("results", hasItems(
+                        allOf(hasProperty("type", is(SearchEntryType.PRODUCT)), hasProperty("label", is("Blue pen"))),
+                        allOf(hasProperty("type", is(SearchEntryType.CATEGORY)), hasProperty("label", is("Blue items"))),
+                        allOf(hasProperty("type", is(SearchEntryType.CUSTOMER)), hasProperty("label", is("Bluebird")))
+                )),
+                view().name("search/search-results")
+        );
+    }
+
+    @Test
+    void searchCustomerByPhone() throws Exception {
+        // when
+        var result = client.perform(get("/search")
+                .param("query", "5551234")
+        );
+        // then
+        result.andExpectAll(
+                status().isOk(),
+                model().attribute("results", contains(hasProperty("label", is("Bluebird")))),
+                view().name("search/search-results")
+        );
+    }
+
+    @Test
+    void searchOrderByNumber() throws Exception {
+        // when
+        var result = client.perform(get("/search")
+                .param("query", "1")
+        );
+        // then
+        result.andExpectAll(
+                status().isOk(),
+                model().attribute("results", hasItem(hasProperty("type", is(SearchEntryType.ORDER)))),
+                view().name("search/search-results")
+        );
+    }
+
+    @Test
+    void searchWithoutQuery() throws Exception {
+        // when
+        var result = client.perform(get("/search"));
+        // then
+        result.andExpectAll(
+                status().isOk(),
+                model().attribute("results", empty()),
+                view().name("search/search-results")
+        );
+    }
+
+}
@@ -0,0 +1,50 @@
+package io.github.augustoravazoli.inventorymanagementsystem.search;
+
+import io.github.augustoravazoli.inventorymanagementsystem.user.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchServiceTest {
+
+    @InjectMocks
+    private SearchService searchService;
+
+    @Mock
+    private SearchRepository searchRepository;
+
+    private final User user = new User();
+
+    @Test
+    void search() {
+        // given
+        var expectedResults = List.of(
+                new SearchEntry(SearchEntryType.PRODUCT, 1L, "Blue pen"),
+                new SearchEntry(SearchEntryType.CUSTOMER, 2L, "Blue shop")
+        );
+        when(searchRepository.searchAllByQueryAndOwner("blue:* & p:*", user, 50)).thenReturn(expectedResults);
+        // when
+        var actualResults = searchService.search("blue, p", user);
+        // then
+        assertThat(actualResults).usingRecursiveComparison().isEqualTo(expectedResults);
+    }
+
+    @Test
+    void doNotSearchWithoutTerms() {
+        // when
+        var actualResults = searchService.search(" & !", user);
+        // then
+        assertThat(actualResults).isEmpty();
+        verify(searchRepository, never()).searchAllByQueryAndOwner(anyString(), any(User.class), anyInt());
+    }
+
+}
@@ -0,0 +1,28 @@
+package io.github.augustoravazoli.inventorymanagementsystem.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorTest {
+
+    @Test
+    void decodeEncodedCursor() {
+        // given
+        var cursor = new Cursor("name: with separator", 1L);
+        // when
+        var decodedCursor = Cursor.decode(cursor.encode());
+        // then
+        assertThat(decodedCursor).isEqualTo(cursor);
+    }
+
+    @Test
+    void doNotDecodeInvalidCursor() {
+        // when
+        var exception = assertThatThrownBy(() -> Cursor.decode("invalid"));
+        // then
+        exception.isInstanceOf(InvalidCursorException.class);
+    }
+
+}
@@ -0,0 +1,111 @@
+package io.github.augustoravazoli.inventorymanagementsystem.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DocumentCacheTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void putDocument() {
+        // given
+        var documentCache = new DocumentCache(directory, 100);
+        // when
+        var document = documentCache.put("order-1", "v1", "document.pdf", writer("content"));
+        // then
+        assertThat(document.filename()).isEqualTo("document.pdf");
+        assertThat(document.size()).isEqualTo(7);
+        assertThat(read(document)).isEqualTo("content");
+    }
+
+    @Test
+    void findCachedDocument() {
+        // given
+        var documentCache = new DocumentCache(directory, 100);
+        read(documentCache.put("order-1", "v1", "document.pdf", writer("content")));
+        // when
+        var document = documentCache.find("order-1", "v1");
+        // then
+        assertThat(document).hasValueSatisfying(cached -> {
+            assertThat(cached.filename()).isEqualTo("document.pdf");
+            assertThat(cached.size()).isEqualTo(7);
+            assertThat(read(cached)).isEqualTo("content");
+        });
+    }
+
+    @Test
+    void doNotFindOutdatedDocument() {
+        // given
+        var documentCache = new DocumentCache(directory, 100);
+        read(documentCache.put("order-1", "v1", "document.pdf", writer("content")));
+        // when
+        var document = documentCache.find("order-1", "v2");
+        // then
+        assertThat(document).isEmpty();
+        assertThat(documentCache.find("order-1", "v1")).isEmpty();
+    }
+
+    @Test
+    void doNotFindEvictedDocument() {
+        // given
+        var documentCache = new DocumentCache(directory, 100);
+        read(documentCache.put("order-1", "v1", "document.pdf", writer("content")));
+        // when
+        documentCache.evict("order-1");
+        // then
+        assertThat(documentCache.find("order-1", "v1")).isEmpty();
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    @Test
+    void evictLeastRecentlyUsedDocumentsWhenFull() {
+        // given
+        var documentCache = new DocumentCache(directory, 20);
+        read(documentCache.put("order-1", "v1", "document.pdf", writer("content")));
+        read(documentCache.put("order-2", "v1", "document.pdf", writer("content")));
+        documentCache.find("order-1", "v1").ifPresent(this::read);
+        // when
+        read(documentCache.put("order-3", "v1", "document.pdf", writer("content")));
+        // then
+        assertThat(documentCache.find("order-1", "v1")).isPresent();
+        assertThat(documentCache.find("order-2", "v1")).isEmpty();
+        assertThat(documentCache.find("order-3", "v1")).isPresent();
+    }
+
+    @Test
+    void doNotCacheDocumentLargerThanCache() {
+        // given
+        var documentCache = new DocumentCache(directory, 5);
+        // when
+        var document = documentCache.put("order-1", "v1", "document.pdf", writer("content"));
+        // then
+        assertThat(read(document)).isEqualTo("content");
+        assertThat(documentCache.find("order-1", "v1")).isEmpty();
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    private DocumentWriter writer(String text) {
+        return output -> output.write(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String read(Document document) {
+        try {
+            var output = new ByteArrayOutputStream();
+            document.writeTo(output);
+            return output.toString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+package io.github.augustoravazoli.inventorymanagementsystem.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OwnerScopedCacheTest {
+
+    @Test
+    void getCachedValue() {
+        // given
+        var cache = new OwnerScopedCache<String>("values", 10, Duration.ofMinutes(1));
+        var loads = new AtomicInteger();
+        cache.get(1L, () -> "value-" + loads.incrementAndGet());
+        // when
+        var value = cache.get(1L, () -> "value-" + loads.incrementAndGet());
+        // then
+        assertThat(value).isEqualTo("value-1");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void reloadInvalidatedValue() {
+        // given
+        var cache = new OwnerScopedCache<String>("values", 10, Duration.ofMinutes(1));
+        var loads = new AtomicInteger();
+        cache.get(1L, () -> "value-" + loads.incrementAndGet());
+        cache.get(2L, () -> "value-" + loads.incrementAndGet());
+        // when
+        cache.invalidate(1L);
+        // then
+        assertThat(cache.get(1L, () -> "value-" + loads.incrementAndGet())).isEqualTo("value-3");
+        assertThat(cache.get(2L, () -> "value-" + loads.incrementAndGet())).isEqualTo("value-2");
+    }
+
+    @Test
+    void reloadExpiredValue() {
+        // given
+        var cache = new OwnerScopedCache<String>("values", 10, Duration.ZERO);
+        var loads = new AtomicInteger();
+        cache.get(1L, () -> "value-" + loads.incrementAndGet());
+        // when
+        var value = cache.get(1L, () -> "value-" + loads.incrementAndGet());
+        // then
+        assertThat(value).isEqualTo("value-2");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void doNotCacheValueLoadedBeforeInvalidation() {
+        // given
+        var cache = new OwnerScopedCache<String>("values", 10, Duration.ofMinutes(1));
+        // when
+        var value = cache.get(1L, () -> {
+            cache.invalidate(1L);
+            return "stale";
+        });
+        // then
+        assertThat(value).isEqualTo("stale");
+        assertThat(cache.get(1L, () -> "fresh")).isEqualTo("fresh");
+    }
+
+    @Test
+    void evictLeastRecentlyUsedOwnersWhenFull() {
+        // given
+        var cache = new OwnerScopedCache<String>("values", 2, Duration.ofMinutes(1));
+        cache.get(1L, () -> "a");
+        cache.get(2L, () -> "b");
+        cache.get(1L, () -> "unused");
+        // when
+        cache.get(3L, () -> "c");
+        // then
+        assertThat(cache.get(1L, () -> "reloaded")).isEqualTo("a");
+        assertThat(cache.get(2L, () -> "reloaded")).isEqualTo("reloaded");
+        assertThat(cache.get(3L, () -> "reloaded")).isEqualTo("c");
+    }
+
+}